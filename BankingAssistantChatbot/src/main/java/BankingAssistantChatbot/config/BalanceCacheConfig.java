@@ -0,0 +1,22 @@
+package BankingAssistantChatbot.config;
+
+import BankingAssistantChatbot.config.WebSocketConfig.BrokerMode;
+import BankingAssistantChatbot.services.BalanceCacheBackend;
+import BankingAssistantChatbot.services.InMemoryBalanceCacheBackend;
+import BankingAssistantChatbot.services.NoBalanceCacheBackend;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class BalanceCacheConfig {
+
+    // In relay mode several nodes serve the same accounts, and a node's in-process cache would keep
+    // serving a balance after a transfer on another node changed it. Unless a shared backend is
+    // declared (@Primary), balances are then not cached at all.
+    @Bean
+    public BalanceCacheBackend balanceCacheBackend(@Value("${chat.broker.mode:simple}") BrokerMode brokerMode,
+                                                   @Value("${balance.cache.max-entries:100000}") int maxEntries) {
+        return brokerMode == BrokerMode.RELAY ? new NoBalanceCacheBackend() : new InMemoryBalanceCacheBackend(maxEntries);
+    }
+}
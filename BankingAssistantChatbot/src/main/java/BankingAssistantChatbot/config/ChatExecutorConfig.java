@@ -0,0 +1,31 @@
+package BankingAssistantChatbot.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class ChatExecutorConfig {
+
+    // Chat turns run here instead of on the STOMP clientInboundChannel threads,
+    // so slow model calls never block balance lookups or transfers of other sessions.
+    // Depends on the chat log writer so it is shut down first: turns still running at shutdown
+    // finish and queue their log entries before the writer drains its queue.
+    @Bean(name = "chatExecutor")
+    @DependsOn("chatLogWriter")
+    public ThreadPoolTaskExecutor chatExecutor(@Value("${chat.executor.core-pool-size:16}") int corePoolSize,
+                                               @Value("${chat.executor.max-pool-size:64}") int maxPoolSize,
+                                               @Value("${chat.executor.queue-capacity:500}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("chat-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,31 @@
+package BankingAssistantChatbot.config;
+
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.web.socket.WebSocketExtension;
+import org.springframework.web.socket.server.support.DefaultHandshakeHandler;
+
+import java.util.List;
+
+// Tomcat offers permessage-deflate to every client that asks for it. Compression pays off on
+// long streamed answers over mobile links but costs CPU per frame, so it can be switched off here.
+public class ChatHandshakeHandler extends DefaultHandshakeHandler {
+
+    static final String PERMESSAGE_DEFLATE = "permessage-deflate";
+
+    private final boolean permessageDeflate;
+
+    public ChatHandshakeHandler(boolean permessageDeflate) {
+        this.permessageDeflate = permessageDeflate;
+    }
+
+    @Override
+    protected List<WebSocketExtension> filterRequestedExtensions(ServerHttpRequest request,
+                                                                 List<WebSocketExtension> requested,
+                                                                 List<WebSocketExtension> supported) {
+        List<WebSocketExtension> accepted = super.filterRequestedExtensions(request, requested, supported);
+        if (permessageDeflate) {
+            return accepted;
+        }
+        return accepted.stream().filter(e -> !PERMESSAGE_DEFLATE.equalsIgnoreCase(e.getName())).toList();
+    }
+}
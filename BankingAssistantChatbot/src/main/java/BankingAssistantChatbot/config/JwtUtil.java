@@ -1,5 +1,7 @@
 package BankingAssistantChatbot.config;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -8,6 +10,7 @@ import org.springframework.stereotype.Component;
 
 import java.security.Key;
 import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 public class JwtUtil {
@@ -17,6 +20,25 @@ public class JwtUtil {
 
     private static final long JWT_EXPIRATION_TIME = 1000 * 60 * 60 * 10; // 10 hours
 
+    // Immutable and thread-safe: built once instead of once per call
+    private static final JwtParser PARSER = Jwts.parserBuilder()
+            .setSigningKey(SECRET_KEY)
+            .build();
+
+    // Tokens whose signature has already been checked, keyed by the full token string, each kept
+    // only until the token itself expires. Clients send the same token on every call, so most
+    // requests skip the HMAC check and claims parsing entirely.
+    private record Verified(String subject, long expiresAt) { }
+
+    private final int maxCachedTokens;
+    private final ConcurrentHashMap<String, Verified> verified = new ConcurrentHashMap<>();
+
+    private volatile long lastPurge;
+
+    public JwtUtil(@Value("${jwt.cache.max-entries:10000}") int maxCachedTokens) {
+        this.maxCachedTokens = maxCachedTokens;
+    }
+
     // Method to generate the JWT token
     public String generateToken(String username) {
         return Jwts.builder()
@@ -27,26 +49,43 @@ public class JwtUtil {
                 .compact();
     }
 
-    // Method to validate the JWT token
-    public boolean validateToken(String token) {
+    // One verification per token: returns the subject of a valid, unexpired token, otherwise null
+    public String validateAndExtractUsername(String token) {
+        if (token == null || token.isEmpty()) return null;
+
+        long now = System.currentTimeMillis();
+        Verified hit = verified.get(token);
+        if (hit != null) {
+            if (hit.expiresAt() > now) return hit.subject();
+            verified.remove(token, hit);
+        }
+
+        Claims claims;
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(SECRET_KEY)  // Use the same secret key to validate the token
-                    .build()
-                    .parseClaimsJws(token);
-            return true;
+            claims = PARSER.parseClaimsJws(token).getBody();
         } catch (Exception e) {
-            return false;
+            return null;
         }
+
+        Date expiration = claims.getExpiration();
+        if (expiration != null && hasRoom(now)) {
+            verified.put(token, new Verified(claims.getSubject(), expiration.getTime()));
+        }
+        return claims.getSubject();
     }
 
-    // Method to extract the username from the JWT token
-    public String extractUsername(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(SECRET_KEY)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+    // Method to validate the JWT token
+    public boolean validateToken(String token) {
+        return validateAndExtractUsername(token) != null;
+    }
+
+    // When full, drop expired tokens (at most once a second); if still full, just don't cache
+    private boolean hasRoom(long now) {
+        if (verified.size() < maxCachedTokens) return true;
+        if (now - lastPurge > 1000) {
+            lastPurge = now;
+            verified.values().removeIf(v -> v.expiresAt() <= now);
+        }
+        return verified.size() < maxCachedTokens;
     }
 }
@@ -0,0 +1,54 @@
+package BankingAssistantChatbot.config;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+@Configuration
+public class OllamaClientConfig {
+
+    // One pool of keep-alive connections for all model calls: no TCP setup per request, and never
+    // more than max-connections requests open against Ollama (match its OLLAMA_NUM_PARALLEL).
+    // A bean so the pool is closed on shutdown.
+    @Bean
+    public HttpComponentsClientHttpRequestFactory ollamaRequestFactory(@Value("${ai.ollama.max-connections:8}") int maxConnections,
+                                                                       @Value("${ai.ollama.connect-timeout:2s}") Duration connectTimeout,
+                                                                       @Value("${ai.ollama.read-timeout:20s}") Duration readTimeout,
+                                                                       @Value("${ai.ollama.pool-wait-timeout:30s}") Duration poolWaitTimeout) {
+        PoolingHttpClientConnectionManager pool = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections) // a single route: the Ollama host
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(readTimeout))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(5)) // Ollama may have closed an idle socket
+                        .build())
+                .build();
+
+        CloseableHttpClient client = HttpClients.custom()
+                .setConnectionManager(pool)
+                .evictIdleConnections(TimeValue.ofMinutes(1))
+                .build();
+
+        HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory(client);
+        factory.setConnectionRequestTimeout(poolWaitTimeout);
+        return factory;
+    }
+
+    @Bean
+    public RestTemplate ollamaRestTemplate(@Qualifier("ollamaRequestFactory") HttpComponentsClientHttpRequestFactory ollamaRequestFactory) {
+        return new RestTemplate(ollamaRequestFactory);
+    }
+}
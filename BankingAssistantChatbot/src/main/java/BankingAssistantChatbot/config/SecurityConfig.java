@@ -23,6 +23,8 @@ public class SecurityConfig {
                 .csrf(csrf -> csrf.disable()) // Disable CSRF for WebSocket support
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/auth/login", "/ws/**").permitAll() // Allow login and WebSocket endpoints
+                        .requestMatchers("/admin/**").hasRole("ADMIN") // cache controls: only logins listed in admin.users
+                        .requestMatchers("/api/transactions/import/**").hasRole("ADMIN") // writes ledger rows into any account
                         .anyRequest().authenticated()
                 )
                 .addFilterBefore(jwtRequestFilter, UsernamePasswordAuthenticationFilter.class); // Add JWT filter before authentication filter
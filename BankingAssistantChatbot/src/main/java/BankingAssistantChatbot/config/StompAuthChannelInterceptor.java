@@ -0,0 +1,69 @@
+package BankingAssistantChatbot.config;
+
+import BankingAssistantChatbot.dto.AccountInfoDTO;
+import BankingAssistantChatbot.dto.ChatUser;
+import BankingAssistantChatbot.repository.AccountRepository;
+import BankingAssistantChatbot.repository.CustomerRepository;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Authenticates the STOMP session once, at CONNECT: the client sends "Authorization: Bearer <jwt>"
+// as a connect header. The customer and the IBANs it owns are looked up here and bound to the
+// session, so chat messages carry no credentials and need no per-message lookups.
+@Component
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+    private final JwtUtil jwtUtil;
+    private final CustomerRepository customerRepository;
+    private final AccountRepository accountRepository;
+
+    public StompAuthChannelInterceptor(JwtUtil jwtUtil,
+                                       CustomerRepository customerRepository,
+                                       AccountRepository accountRepository) {
+        this.jwtUtil = jwtUtil;
+        this.customerRepository = customerRepository;
+        this.accountRepository = accountRepository;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        // covers both CONNECT and its STOMP 1.1+ alias, the STOMP frame
+        if (accessor == null || !SimpMessageType.CONNECT.equals(accessor.getMessageType())) {
+            return message;
+        }
+
+        String header = accessor.getFirstNativeHeader("Authorization");
+        String token = header != null && header.startsWith("Bearer ") ? header.substring(7) : null;
+        String email = jwtUtil.validateAndExtractUsername(token);
+        if (email == null) {
+            // rejected CONNECT: the client gets an ERROR frame and the socket is closed
+            throw new MessageDeliveryException("Missing or invalid token");
+        }
+
+        Long customerId = customerRepository.findIdByEmail(email)
+                .orElseThrow(() -> new MessageDeliveryException("Unknown customer"));
+
+        Map<String, Long> accounts = new LinkedHashMap<>();
+        for (AccountInfoDTO account : accountRepository.findInfoByCustomerId(customerId)) {
+            accounts.put(account.getIban(), account.getId());
+        }
+
+        ChatUser user = new ChatUser(email, customerId, Collections.unmodifiableMap(accounts));
+        if (accessor.getSessionAttributes() != null) {
+            accessor.getSessionAttributes().put(ChatUser.SESSION_ATTRIBUTE, user);
+        }
+        accessor.setUser(user);
+        return message;
+    }
+}
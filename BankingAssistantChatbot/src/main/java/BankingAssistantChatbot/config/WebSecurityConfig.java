@@ -21,6 +21,7 @@ public class WebSecurityConfig {
                 )
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/ws/**").permitAll()
+                        .requestMatchers("/admin/**", "/api/transactions/import/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 );
 
@@ -1,23 +1,169 @@
 package BankingAssistantChatbot.config;
 
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+import org.springframework.web.socket.server.standard.ServletServerContainerFactoryBean;
+
+import java.time.Duration;
 
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    public enum BrokerMode { SIMPLE, RELAY }
+
+    private final StompAuthChannelInterceptor stompAuthChannelInterceptor;
+    private final TaskScheduler messageBrokerTaskScheduler;
+
+    @Value("${chat.broker.mode:simple}")
+    private BrokerMode brokerMode;
+
+    // {server sends every, server expects every} in ms; 0,0 turns heartbeats off
+    @Value("${chat.broker.heartbeat:10000,10000}")
+    private long[] heartbeat;
+
+    @Value("${chat.broker.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${chat.broker.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${chat.broker.relay.virtual-host:}")
+    private String relayVirtualHost;
+
+    @Value("${chat.broker.relay.login:bankuser}")
+    private String relayLogin;
+
+    @Value("${chat.broker.relay.passcode:bankpass}")
+    private String relayPasscode;
+
+    @Value("${chat.channel.inbound.core-pool-size:8}")
+    private int inboundCorePoolSize;
+
+    @Value("${chat.channel.inbound.max-pool-size:32}")
+    private int inboundMaxPoolSize;
+
+    @Value("${chat.channel.inbound.queue-capacity:1000}")
+    private int inboundQueueCapacity;
+
+    @Value("${chat.channel.outbound.core-pool-size:8}")
+    private int outboundCorePoolSize;
+
+    @Value("${chat.channel.outbound.max-pool-size:32}")
+    private int outboundMaxPoolSize;
+
+    @Value("${chat.channel.outbound.queue-capacity:1000}")
+    private int outboundQueueCapacity;
+
+    // largest inbound STOMP frame; the container's text buffer is sized to match
+    @Value("${chat.websocket.message-size-limit:64KB}")
+    private DataSize messageSizeLimit;
+
+    // a session whose client reads slower than this is closed instead of buffering without bound
+    @Value("${chat.websocket.send-buffer-size-limit:512KB}")
+    private DataSize sendBufferSizeLimit;
+
+    @Value("${chat.websocket.send-time-limit:10s}")
+    private Duration sendTimeLimit;
+
+    // sockets that open but never send CONNECT are dropped after this
+    @Value("${chat.websocket.time-to-first-message:30s}")
+    private Duration timeToFirstMessage;
+
+    @Value("${chat.websocket.permessage-deflate:true}")
+    private boolean permessageDeflate;
+
+    // @Lazy: the scheduler bean is declared by the broker configuration this class is part of
+    public WebSocketConfig(StompAuthChannelInterceptor stompAuthChannelInterceptor,
+                           @Lazy @Qualifier("messageBrokerTaskScheduler") TaskScheduler messageBrokerTaskScheduler) {
+        this.stompAuthChannelInterceptor = stompAuthChannelInterceptor;
+        this.messageBrokerTaskScheduler = messageBrokerTaskScheduler;
+    }
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic"); // for broadcasting messages
+        if (brokerMode == BrokerMode.RELAY) {
+            // Every node forwards /topic and /queue to the shared broker, so a client can land
+            // on any node behind the load balancer. Login/passcode are used for client CONNECTs and
+            // for the node's own system session (which publishes replies from the server side).
+            config.enableStompBrokerRelay("/topic", "/queue")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setVirtualHost(relayVirtualHost.isBlank() ? null : relayVirtualHost)
+                    .setClientLogin(relayLogin)
+                    .setClientPasscode(relayPasscode)
+                    .setSystemLogin(relayLogin)
+                    .setSystemPasscode(relayPasscode)
+                    .setSystemHeartbeatSendInterval(heartbeat[0])
+                    .setSystemHeartbeatReceiveInterval(heartbeat[1])
+                    // /user/... sends for users connected to another node are resolved there
+                    .setUserDestinationBroadcast("/topic/unresolved-user-destination")
+                    .setUserRegistryBroadcast("/topic/simp-user-registry");
+        } else {
+            config.enableSimpleBroker("/topic", "/queue") // /topic for broadcasts, /queue for per-session replies
+                    .setHeartbeatValue(heartbeat)
+                    .setTaskScheduler(messageBrokerTaskScheduler);
+        }
         config.setApplicationDestinationPrefixes("/app"); // for sending messages from client
+        config.setUserDestinationPrefix("/user"); // /user/queue/replies -> this session's reply queue
+        config.setPreservePublishOrder(true); // streamed chunks must reach the client in order
     }
 
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
-        registry.addEndpoint("/ws/chat").setAllowedOriginPatterns("*").withSockJS();
+        ChatHandshakeHandler handshakeHandler = new ChatHandshakeHandler(permessageDeflate);
+        // browsers that may sit behind proxies without WebSocket support
+        registry.addEndpoint("/ws/chat")
+                .setHandshakeHandler(handshakeHandler)
+                .setAllowedOriginPatterns("*")
+                .withSockJS();
+        // plain WebSocket for clients that always have it (mobile apps): no SockJS framing or fallbacks
+        registry.addEndpoint("/ws/chat-native")
+                .setHandshakeHandler(handshakeHandler)
+                .setAllowedOriginPatterns("*");
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setMessageSizeLimit((int) messageSizeLimit.toBytes())
+                .setSendBufferSizeLimit((int) sendBufferSizeLimit.toBytes())
+                .setSendTimeLimit((int) sendTimeLimit.toMillis())
+                .setTimeToFirstMessage((int) timeToFirstMessage.toMillis());
+    }
+
+    @Bean
+    public ServletServerContainerFactoryBean webSocketContainer() {
+        ServletServerContainerFactoryBean container = new ServletServerContainerFactoryBean();
+        container.setMaxTextMessageBufferSize((int) messageSizeLimit.toBytes());
+        container.setMaxBinaryMessageBufferSize((int) messageSizeLimit.toBytes());
+        return container;
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(stompAuthChannelInterceptor); // JWT check on CONNECT
+        registration.taskExecutor()
+                .corePoolSize(inboundCorePoolSize)
+                .maxPoolSize(inboundMaxPoolSize)
+                .queueCapacity(inboundQueueCapacity);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor()
+                .corePoolSize(outboundCorePoolSize)
+                .maxPoolSize(outboundMaxPoolSize)
+                .queueCapacity(outboundQueueCapacity);
     }
 }
@@ -0,0 +1,51 @@
+package BankingAssistantChatbot.controller;
+
+import BankingAssistantChatbot.services.BalanceCache;
+import BankingAssistantChatbot.services.ModelResponseCache;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/admin")
+public class AdminController {
+
+    private final ModelResponseCache modelResponseCache;
+    private final BalanceCache balanceCache;
+
+    public AdminController(ModelResponseCache modelResponseCache, BalanceCache balanceCache) {
+        this.modelResponseCache = modelResponseCache;
+        this.balanceCache = balanceCache;
+    }
+
+    @GetMapping("/cache/model-responses")
+    public Map<String, Object> modelResponseCacheStats() {
+        return Map.of(
+                "size", modelResponseCache.size(),
+                "hits", modelResponseCache.hitCount(),
+                "misses", modelResponseCache.missCount());
+    }
+
+    // Call after changing SYSTEM_PROMPT or the model, otherwise old answers keep being served
+    @DeleteMapping("/cache/model-responses")
+    public Map<String, Object> invalidateModelResponseCache() {
+        return Map.of("evicted", modelResponseCache.invalidateAll());
+    }
+
+    @GetMapping("/cache/balances")
+    public Map<String, Object> balanceCacheStats() {
+        return Map.of(
+                "size", balanceCache.size(),
+                "hits", balanceCache.hitCount(),
+                "misses", balanceCache.missCount());
+    }
+
+    // For balances changed outside the application (manual SQL, data fixes)
+    @DeleteMapping("/cache/balances")
+    public Map<String, Object> invalidateBalanceCache() {
+        return Map.of("evicted", balanceCache.invalidateAll());
+    }
+}
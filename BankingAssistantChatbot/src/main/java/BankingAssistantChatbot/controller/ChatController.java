@@ -1,30 +1,31 @@
 package BankingAssistantChatbot.controller;
 
 import BankingAssistantChatbot.dto.ChatMessageDTO;
-import BankingAssistantChatbot.services.ChatbotService;
+import BankingAssistantChatbot.dto.ChatUser;
+import BankingAssistantChatbot.services.ChatDispatchService;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.MessageMapping;
-import org.springframework.messaging.handler.annotation.SendTo;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.stereotype.Controller;
 
+import java.util.Map;
+
 @Controller
 public class ChatController {
 
-    private final ChatbotService chatbotService;
+    private final ChatDispatchService chatDispatchService;
 
-    public ChatController(ChatbotService chatbotService) {
-        this.chatbotService = chatbotService;
+    public ChatController(ChatDispatchService chatDispatchService) {
+        this.chatDispatchService = chatDispatchService;
     }
 
+    // Replies are delivered asynchronously by ChatDispatchService once they are ready.
+    // The user was authenticated and bound to the session at CONNECT (StompAuthChannelInterceptor).
     @MessageMapping("/chat.send")
-    @SendTo("/topic/public")
-    public ChatMessageDTO sendMessage(ChatMessageDTO message) {
-        if (message == null || message.getContent() == null || message.getContent().isBlank()) {
-            return new ChatMessageDTO("BANK-BOT", "Please send a valid message.", "BOT");
-        }
-
-        String userIban = message.getSender(); // sender holds IBAN
-        String botResponse = chatbotService.generateResponse(userIban, message.getContent());
-
-        return new ChatMessageDTO("BANK-BOT", botResponse, "BOT");
+    public void sendMessage(ChatMessageDTO message,
+                            @Header(SimpMessageHeaderAccessor.SESSION_ATTRIBUTES) Map<String, Object> sessionAttributes,
+                            @Header(SimpMessageHeaderAccessor.SESSION_ID_HEADER) String sessionId) {
+        ChatUser user = (ChatUser) sessionAttributes.get(ChatUser.SESSION_ATTRIBUTE);
+        chatDispatchService.dispatch(sessionId, user, message);
     }
 }
@@ -1,41 +1,102 @@
 package BankingAssistantChatbot.controller;
 
-import BankingAssistantChatbot.model.Account;
-import BankingAssistantChatbot.model.Transaction;
+import BankingAssistantChatbot.dto.AccountInfoDTO;
+import BankingAssistantChatbot.dto.TransactionDTO;
+import BankingAssistantChatbot.dto.TransactionPageDTO;
 import BankingAssistantChatbot.repository.AccountRepository;
 import BankingAssistantChatbot.services.TransactionService;
 import BankingAssistantChatbot.services.AccountService;
+import BankingAssistantChatbot.services.StatementExportService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/transactions")
 public class TransactionController {
 
     private final TransactionService transactionService;
+    private final StatementExportService statementExportService;
     private final AccountRepository accountRepository;
 
-    public TransactionController(TransactionService transactionService, AccountRepository accountRepository) {
+    public TransactionController(TransactionService transactionService, StatementExportService statementExportService,
+                                 AccountRepository accountRepository) {
         this.transactionService = transactionService;
+        this.statementExportService = statementExportService;
         this.accountRepository = accountRepository;
     }
 
+    // Newest first, one page at a time; pass the returned nextCursor back to get the next page
     @GetMapping("/history/{iban}")
-    public List<Transaction> getTransactionHistory(@PathVariable String iban) {
-        Account account = accountRepository.findByIban(iban)
+    public TransactionPageDTO getTransactionHistory(@PathVariable String iban,
+                                                    @RequestParam(required = false) String cursor,
+                                                    @RequestParam(defaultValue = "" + TransactionService.DEFAULT_PAGE_SIZE) int size) {
+        AccountInfoDTO account = accountRepository.findInfoByIban(iban)
                 .orElseThrow(() -> new RuntimeException("Account not found with IBAN: " + iban)); // Throws exception if not found
-        return transactionService.getTransactions(account);
+        return transactionService.getTransactionPage(account.getId(), cursor, size);
+    }
+
+    // Statement export, streamed as it is read: ?format=csv|ndjson&from=2024-01-01&to=2024-01-31 (dates inclusive)
+    @GetMapping("/export/{iban}")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(@PathVariable String iban,
+                                                                    @RequestParam(defaultValue = "csv") String format,
+                                                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        AccountInfoDTO account = accountRepository.findInfoByIban(iban)
+                .orElseThrow(() -> new RuntimeException("Account not found with IBAN: " + iban));
+
+        StatementExportService.Format fmt;
+        try {
+            fmt = StatementExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported format: " + format);
+        }
+
+        LocalDateTime start = from != null ? from.atStartOfDay() : null;
+        LocalDateTime end = to != null ? to.plusDays(1).atStartOfDay() : null;
+        StreamingResponseBody body = out -> statementExportService.export(account.getId(), start, end, fmt, out);
+
+        String extension = fmt == StatementExportService.Format.CSV ? "csv" : "ndjson";
+        return ResponseEntity.ok()
+                .contentType(fmt == StatementExportService.Format.CSV
+                        ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                        : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + iban + "." + extension + "\"")
+                .body(body);
+    }
+
+    // Bulk import of historical statement rows for an existing account; admins only (see SecurityConfig).
+    // The body (JSON array or NDJSON) is parsed as it arrives, never held in memory as a whole.
+    @PostMapping(value = "/import/{iban}", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Map<String, Object> importTransactions(@PathVariable String iban, InputStream body) {
+        AccountInfoDTO account = accountRepository.findInfoByIban(iban)
+                .orElseThrow(() -> new RuntimeException("Account not found with IBAN: " + iban));
+        return Map.of("imported", transactionService.importTransactions(account.getId(), body));
     }
 
     @GetMapping("/last10/{iban}")
-    public List<Transaction> getLast10Transactions(@PathVariable String iban) {
-        Account account = accountRepository.findByIban(iban)
+    public List<TransactionDTO> getLast10Transactions(@PathVariable String iban) {
+        AccountInfoDTO account = accountRepository.findInfoByIban(iban)
                 .orElseThrow(() -> new RuntimeException("Account not found with IBAN: " + iban)); // Throws exception if not found
-        return transactionService.getLast10Transactions(account);
+        return transactionService.getLast10Transactions(account.getId());
     }
 }
 
@@ -1,4 +1,43 @@
 package BankingAssistantChatbot.dto;
 
+import BankingAssistantChatbot.model.AccountType;
+import BankingAssistantChatbot.model.Money;
+
+// Read-only view of an account; filled by a constructor projection, never by loading the entity
 public class AccountInfoDTO {
+    private Long id;
+    private String iban;
+    private AccountType accountType;
+    private Money balance;
+    private String status;
+    private long version;
+
+    public AccountInfoDTO() {}
+
+    public AccountInfoDTO(Long id, String iban, AccountType accountType, Money balance, String status, long version) {
+        this(id, iban, accountType, balance, status);
+        this.version = version;
+    }
+
+    public AccountInfoDTO(Long id, String iban, AccountType accountType, Money balance, String status) {
+        this.id = id;
+        this.iban = iban;
+        this.accountType = accountType;
+        this.balance = balance;
+        this.status = status;
+    }
+
+    // getters & setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getIban() { return iban; }
+    public void setIban(String iban) { this.iban = iban; }
+    public AccountType getAccountType() { return accountType; }
+    public void setAccountType(AccountType accountType) { this.accountType = accountType; }
+    public Money getBalance() { return balance; }
+    public void setBalance(Money balance) { this.balance = balance; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
 }
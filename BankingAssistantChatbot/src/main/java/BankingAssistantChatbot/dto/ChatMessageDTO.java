@@ -3,7 +3,9 @@ package BankingAssistantChatbot.dto;
 public class ChatMessageDTO {
     private String sender;
     private String content;
-    private String type; // e.g., "USER" or "BOT"
+    private String type; // e.g., "USER", "BOT" or "BOT_STREAM" (partial streamed chunk)
+    private String replyId; // ties streamed chunks to their final reply
+    private boolean done;
 
     public ChatMessageDTO() {}
 
@@ -13,6 +15,12 @@ public class ChatMessageDTO {
         this.type = type;
     }
 
+    public ChatMessageDTO(String sender, String content, String type, String replyId, boolean done) {
+        this(sender, content, type);
+        this.replyId = replyId;
+        this.done = done;
+    }
+
     // getters & setters
     public String getSender() { return sender; }
     public void setSender(String sender) { this.sender = sender; }
@@ -20,4 +28,8 @@ public class ChatMessageDTO {
     public void setContent(String content) { this.content = content; }
     public String getType() { return type; }
     public void setType(String type) { this.type = type; }
+    public String getReplyId() { return replyId; }
+    public void setReplyId(String replyId) { this.replyId = replyId; }
+    public boolean isDone() { return done; }
+    public void setDone(boolean done) { this.done = done; }
 }
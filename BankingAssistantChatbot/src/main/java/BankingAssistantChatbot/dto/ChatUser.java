@@ -0,0 +1,30 @@
+package BankingAssistantChatbot.dto;
+
+import java.security.Principal;
+import java.util.Map;
+
+// Who is on the other end of a STOMP session. Resolved once at CONNECT from the JWT and kept in
+// the session attributes (and as the session Principal) for every later message.
+// accounts: owned IBAN -> account id, in account creation order
+public record ChatUser(String email, Long customerId, Map<String, Long> accounts) implements Principal {
+
+    public static final String SESSION_ATTRIBUTE = "chatUser";
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    public boolean owns(String iban) {
+        return iban != null && accounts.containsKey(iban);
+    }
+
+    public Long accountId(String iban) {
+        return accounts.get(iban);
+    }
+
+    // IBAN used when the client doesn't name one; null if the customer has no accounts
+    public String defaultIban() {
+        return accounts.isEmpty() ? null : accounts.keySet().iterator().next();
+    }
+}
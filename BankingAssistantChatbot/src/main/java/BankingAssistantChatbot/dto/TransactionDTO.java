@@ -1,4 +1,31 @@
 package BankingAssistantChatbot.dto;
 
+import BankingAssistantChatbot.model.Money;
+
+import java.time.LocalDateTime;
+
 public class TransactionDTO {
+    private Long id;
+    private Money amount;
+    private String transactionType; // e.g., "TRANSFER_IN", "TRANSFER_OUT", "DEPOSIT"
+    private LocalDateTime createdAt;
+
+    public TransactionDTO() {}
+
+    public TransactionDTO(Long id, Money amount, String transactionType, LocalDateTime createdAt) {
+        this.id = id;
+        this.amount = amount;
+        this.transactionType = transactionType;
+        this.createdAt = createdAt;
+    }
+
+    // getters & setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Money getAmount() { return amount; }
+    public void setAmount(Money amount) { this.amount = amount; }
+    public String getTransactionType() { return transactionType; }
+    public void setTransactionType(String transactionType) { this.transactionType = transactionType; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 }
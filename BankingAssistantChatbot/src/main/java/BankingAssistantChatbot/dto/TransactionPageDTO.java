@@ -0,0 +1,21 @@
+package BankingAssistantChatbot.dto;
+
+import java.util.List;
+
+public class TransactionPageDTO {
+    private List<TransactionDTO> items;
+    private String nextCursor; // null on the last page
+
+    public TransactionPageDTO() {}
+
+    public TransactionPageDTO(List<TransactionDTO> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    // getters & setters
+    public List<TransactionDTO> getItems() { return items; }
+    public void setItems(List<TransactionDTO> items) { this.items = items; }
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
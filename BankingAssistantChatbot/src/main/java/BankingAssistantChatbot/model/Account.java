@@ -3,7 +3,6 @@ package BankingAssistantChatbot.model;
 import jakarta.persistence.*;
 import lombok.*;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -16,14 +15,20 @@ import java.util.List;
 public class Account {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "accounts_seq")
+    @SequenceGenerator(name = "accounts_seq", sequenceName = "accounts_seq", allocationSize = 50)
     private Long id;
 
     // CHECKING, SAVINGS, CREDIT etc.
     @Enumerated(EnumType.STRING)
     private AccountType accountType;
 
-    private BigDecimal balance;
+    private Money balance;
+
+    // bumped by every UPDATE; orders the balances BalanceCache is given (the default fills existing rows)
+    @Version
+    @Column(columnDefinition = "bigint default 0 not null")
+    private long version;
 
     @Column(unique = true, nullable = false)
     private String iban;
@@ -2,16 +2,73 @@ package BankingAssistantChatbot.model;
 
 import jakarta.persistence.*;
 
+import java.time.LocalDateTime;
+
+// One chat turn, kept for auditing. Written in batches by ChatLogWriter, off the chat path.
 @Entity
-@Table(name = "chat_logs")
+@Table(name = "chat_logs", indexes = {
+        @Index(name = "idx_chat_logs_sender_created", columnList = "sender, created_at")
+})
 public class ChatLog {
 
+    public static final int MAX_TEXT_LENGTH = 4000;
+
+    // Pooled sequence so a flush of queued turns goes out as one JDBC batch (see Transaction)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "chat_logs_seq")
+    @SequenceGenerator(name = "chat_logs_seq", sequenceName = "chat_logs_seq", allocationSize = 50)
     private Long id;
 
-    private String message;
+    @Column(length = MAX_TEXT_LENGTH)
+    private String message; // what the user wrote
+
+    private String sender; // IBAN the turn was asked for
+
+    private String username;
+
+    private String sessionId;
+
+    @Column(length = MAX_TEXT_LENGTH)
+    private String reply;
+
+    private String intent;
+
+    private String model; // null when a deterministic intent answered
+
+    private long latencyMs; // from dispatch to the final reply
+
+    private LocalDateTime createdAt;
+
+    public ChatLog() {
+        // Default constructor
+    }
+
+    public ChatLog(String sessionId, String username, String sender, String message, String reply,
+                   String intent, String model, long latencyMs, LocalDateTime createdAt) {
+        this.sessionId = sessionId;
+        this.username = username;
+        this.sender = sender;
+        this.message = truncate(message);
+        this.reply = truncate(reply);
+        this.intent = intent;
+        this.model = model;
+        this.latencyMs = latencyMs;
+        this.createdAt = createdAt;
+    }
 
-    private String sender;
+    private static String truncate(String text) {
+        return text == null || text.length() <= MAX_TEXT_LENGTH ? text : text.substring(0, MAX_TEXT_LENGTH);
+    }
 
+    // Getters
+    public Long getId() { return id; }
+    public String getMessage() { return message; }
+    public String getSender() { return sender; }
+    public String getUsername() { return username; }
+    public String getSessionId() { return sessionId; }
+    public String getReply() { return reply; }
+    public String getIntent() { return intent; }
+    public String getModel() { return model; }
+    public long getLatencyMs() { return latencyMs; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
 }
@@ -0,0 +1,124 @@
+package BankingAssistantChatbot.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// An amount of TL held as a whole number of kuruş. Used everywhere money flows (chat parser,
+// transfers, ledger rows, balances, replies) so no Double ever touches a balance. Stored as
+// NUMERIC(.., 2) through MoneyConverter and serialized to JSON as a plain number.
+public final class Money implements Comparable<Money> {
+
+    public static final int SCALE = 2;
+    public static final Money ZERO = new Money(0);
+
+    private static final long MINOR_PER_UNIT = 100;
+
+    private final long minor;
+
+    private Money(long minor) {
+        this.minor = minor;
+    }
+
+    public static Money ofMinor(long minor) {
+        return minor == 0 ? ZERO : new Money(minor);
+    }
+
+    // Exact: more than two decimals (a fraction of a kuruş) is an ArithmeticException
+    @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+    public static Money of(BigDecimal amount) {
+        return ofMinor(amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact());
+    }
+
+    public static Money of(String amount) {
+        return of(new BigDecimal(amount));
+    }
+
+    // Parses raw[from, to) as digits with an optional '.' or ',' followed by one or two digits
+    // ("100", "250,50", "99.9"). Returns null for anything else, without allocating.
+    public static Money parse(CharSequence raw, int from, int to) {
+        long units = 0;
+        int i = from;
+        for (; i < to && raw.charAt(i) != '.' && raw.charAt(i) != ','; i++) {
+            char c = raw.charAt(i);
+            if (c < '0' || c > '9' || units > (Long.MAX_VALUE / MINOR_PER_UNIT - 9) / 10) return null;
+            units = units * 10 + (c - '0');
+        }
+        if (i == from) return null;
+
+        long cents = 0;
+        if (i < to) {
+            int digits = to - i - 1;
+            if (digits < 1 || digits > SCALE) return null;
+            for (int k = i + 1; k < to; k++) {
+                char c = raw.charAt(k);
+                if (c < '0' || c > '9') return null;
+                cents = cents * 10 + (c - '0');
+            }
+            if (digits == 1) cents *= 10;
+        }
+        return ofMinor(units * MINOR_PER_UNIT + cents);
+    }
+
+    public long minor() {
+        return minor;
+    }
+
+    @JsonValue
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minor, SCALE);
+    }
+
+    public Money plus(Money other) {
+        return ofMinor(Math.addExact(minor, other.minor));
+    }
+
+    public Money minus(Money other) {
+        return ofMinor(Math.subtractExact(minor, other.minor));
+    }
+
+    public Money negate() {
+        return ofMinor(Math.negateExact(minor));
+    }
+
+    public int signum() {
+        return Long.signum(minor);
+    }
+
+    public boolean isPositive() {
+        return minor > 0;
+    }
+
+    public boolean isLessThan(Money other) {
+        return minor < other.minor;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minor, other.minor);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Money m && m.minor == minor;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minor);
+    }
+
+    // Plain form with two decimals ("-1234.50"); for replies use MoneyFormat
+    @Override
+    public String toString() {
+        long abs = Math.abs(minor);
+        long cents = abs % MINOR_PER_UNIT;
+        StringBuilder sb = new StringBuilder(24);
+        if (minor < 0) sb.append('-');
+        sb.append(abs / MINOR_PER_UNIT).append('.');
+        if (cents < 10) sb.append('0');
+        return sb.append(cents).toString();
+    }
+}
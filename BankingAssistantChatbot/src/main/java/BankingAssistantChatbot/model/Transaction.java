@@ -3,23 +3,27 @@ package BankingAssistantChatbot.model;
 import jakarta.persistence.*;
 import lombok.*;
 
-import java.math.BigDecimal;
-import java.time.LocalDateTime;
-
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        // serves the keyset-paginated history: WHERE account_id = ? ORDER BY created_at DESC, id DESC
+        @Index(name = "idx_transactions_account_created_id", columnList = "account_id, created_at desc, id desc")
+})
 public class Transaction {
+    // Pooled sequence instead of IDENTITY: ids are known before the INSERT, so Hibernate can
+    // batch ledger rows (allocationSize matches hibernate.jdbc.batch_size)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+    @SequenceGenerator(name = "transactions_seq", sequenceName = "transactions_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
     @JoinColumn(name = "account_id", nullable = false)
     private Account account;
 
-    private Double amount;
+    @Column(precision = 19, scale = 2)
+    private Money amount; // signed: TRANSFER_OUT rows are negative
 
     private String transactionType; // for example, "DEPOSIT", "WITHDRAWAL", etc.
 
@@ -29,7 +33,7 @@ public class Transaction {
         // Default constructor
     }
 
-    public Transaction(Account account, Double amount, String transactionType, LocalDateTime createdAt) {
+    public Transaction(Account account, Money amount, String transactionType, LocalDateTime createdAt) {
         this.account = account;
         this.amount = amount;
         this.transactionType = transactionType;
@@ -53,11 +57,11 @@ public class Transaction {
         this.account = account;
     }
 
-    public Double getAmount() {
+    public Money getAmount() {
         return amount;
     }
 
-    public void setAmount(Double amount) {
+    public void setAmount(Money amount) {
         this.amount = amount;
     }
 
@@ -1,7 +1,12 @@
 package BankingAssistantChatbot.repository;
 
+import BankingAssistantChatbot.dto.AccountInfoDTO;
 import BankingAssistantChatbot.model.Account;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -13,4 +18,18 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
     List<Account> findByCustomerId(Long customerId);
 
     Optional<Account> findByIban(String iban);
+
+    // Lookup for read paths: only the account's own columns, no customer/transactions
+    @Query("select new BankingAssistantChatbot.dto.AccountInfoDTO(a.id, a.iban, a.accountType, a.balance, a.status, a.version)"
+            + " from Account a where a.iban = :iban")
+    Optional<AccountInfoDTO> findInfoByIban(@Param("iban") String iban);
+
+    @Query("select new BankingAssistantChatbot.dto.AccountInfoDTO(a.id, a.iban, a.accountType, a.balance, a.status)"
+            + " from Account a where a.customer.id = :customerId order by a.id")
+    List<AccountInfoDTO> findInfoByCustomerId(@Param("customerId") Long customerId);
+
+    // SELECT ... FOR UPDATE: the row stays locked until the surrounding transaction ends
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Account a where a.iban = :iban")
+    Optional<Account> findByIbanForUpdate(@Param("iban") String iban);
 }
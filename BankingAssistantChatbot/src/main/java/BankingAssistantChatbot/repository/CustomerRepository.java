@@ -2,6 +2,8 @@ package BankingAssistantChatbot.repository;
 
 import BankingAssistantChatbot.model.Customer;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -10,4 +12,7 @@ import java.util.Optional;
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
 
     Optional<Customer> findByEmail(String email);  // Find customer by email
+
+    @Query("select c.id from Customer c where c.email = :email")
+    Optional<Long> findIdByEmail(@Param("email") String email);
 }
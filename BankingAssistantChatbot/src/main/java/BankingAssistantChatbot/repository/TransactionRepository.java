@@ -1,19 +1,55 @@
 package BankingAssistantChatbot.repository;
 
+import BankingAssistantChatbot.dto.TransactionDTO;
 import BankingAssistantChatbot.model.Transaction;
 import BankingAssistantChatbot.model.Account;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
 
     List<Transaction> findByAccount(Account account);
 
-    List<Transaction> findByAccountOrderByCreatedAtDesc(Account account);
+    // Read paths select straight into TransactionDTO: four columns, no Account/Customer graph
+    String DTO = "select new BankingAssistantChatbot.dto.TransactionDTO(t.id, t.amount, t.transactionType, t.createdAt)"
+            + " from Transaction t";
 
-    List<Transaction> findTop10ByAccountOrderByCreatedAtDesc(Account account);
+    @Query(DTO + " where t.account.id = :accountId order by t.createdAt desc, t.id desc")
+    List<TransactionDTO> findRecent(@Param("accountId") Long accountId, Pageable pageable);
+
+    // Keyset pagination: first page, then "everything older than the last row seen"
+    @Query(DTO + " where t.account.id = :accountId order by t.createdAt desc, t.id desc")
+    List<TransactionDTO> findPage(@Param("accountId") Long accountId, Pageable pageable);
+
+    @Query(DTO + " where t.account.id = :accountId"
+            + " and (t.createdAt < :createdAt or (t.createdAt = :createdAt and t.id < :id))"
+            + " order by t.createdAt desc, t.id desc")
+    List<TransactionDTO> findPageBefore(@Param("accountId") Long accountId,
+                                     @Param("createdAt") LocalDateTime createdAt,
+                                     @Param("id") Long id,
+                                     Pageable pageable);
+
+    // Statement export: rows come from a server-side cursor in fetch-size chunks instead of one big List
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select t from Transaction t where t.account.id = :accountId"
+            + " and t.createdAt >= :from and t.createdAt < :to"
+            + " order by t.createdAt, t.id")
+    Stream<Transaction> streamByAccountAndCreatedAtRange(@Param("accountId") Long accountId,
+                                                         @Param("from") LocalDateTime from,
+                                                         @Param("to") LocalDateTime to);
 }
 
@@ -1,20 +1,24 @@
 package BankingAssistantChatbot.services;
 
+import BankingAssistantChatbot.exceptions.InsufficientBalanceException;
 import BankingAssistantChatbot.model.Account;
+import BankingAssistantChatbot.model.Money;
 import BankingAssistantChatbot.repository.AccountRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 public class AccountService {
 
     private final AccountRepository accountRepository;
+    private final BalanceCache balanceCache;
 
-    public AccountService(AccountRepository accountRepository) {
+    public AccountService(AccountRepository accountRepository, BalanceCache balanceCache) {
         this.accountRepository = accountRepository;
+        this.balanceCache = balanceCache;
     }
 
     public Account createAccount(Account account) {
@@ -29,27 +33,56 @@ public class AccountService {
                 .orElseThrow(() -> new RuntimeException("Account not found with IBAN: " + iban));
     }
 
+    // Served from the balance cache; null if there is no account with this IBAN
+    public Money getBalance(String iban) {
+        return balanceCache.get(iban, i -> accountRepository.findInfoByIban(i)
+                .map(a -> new BalanceCache.Snapshot(a.getBalance(), a.getVersion()))
+                .orElse(null));
+    }
+
     public List<Account> findByCustomerId(Long customerId) {
         return accountRepository.findByCustomerId(customerId);
     }
 
+    // The two accounts of a committed transfer, still managed by the caller's transaction
+    public record TransferLegs(Account from, Account to) { }
+
+    // Both rows are locked in a fixed (IBAN) order before anything is checked, so concurrent
+    // transfers between the same accounts serialize instead of losing updates, and opposite
+    // transfers (A->B, B->A) can't deadlock.
+    // Empty result: an account is missing, inactive, or both IBANs are the same.
     @Transactional
-    public boolean transfer(Account from, Account to, BigDecimal amount) {
+    public Optional<TransferLegs> transfer(String fromIban, String toIban, Money amount) {
+        if (fromIban.equals(toIban)) {
+            return Optional.empty();
+        }
+
+        boolean fromFirst = fromIban.compareTo(toIban) < 0;
+        Account first = accountRepository.findByIbanForUpdate(fromFirst ? fromIban : toIban).orElse(null);
+        Account second = accountRepository.findByIbanForUpdate(fromFirst ? toIban : fromIban).orElse(null);
+        if (first == null || second == null) {
+            return Optional.empty();
+        }
+
+        Account from = fromFirst ? first : second;
+        Account to = fromFirst ? second : first;
 
         if (!"ACTIVE".equals(from.getStatus()) || !"ACTIVE".equals(to.getStatus())) {
-            return false;
+            return Optional.empty();
         }
 
-        if (from.getBalance().compareTo(amount) < 0) {
-            return false;
+        if (from.getBalance().isLessThan(amount)) {
+            throw new InsufficientBalanceException("Insufficient balance");
         }
 
-        from.setBalance(from.getBalance().subtract(amount));
-        to.setBalance(to.getBalance().add(amount));
+        // managed entities: the UPDATEs are flushed on commit, no explicit save needed
+        from.setBalance(from.getBalance().minus(amount));
+        to.setBalance(to.getBalance().plus(amount));
 
-        accountRepository.save(from);
-        accountRepository.save(to);
+        // published to the balance cache only if (and when) the surrounding transaction commits
+        balanceCache.updateAfterCommit(from);
+        balanceCache.updateAfterCommit(to);
 
-        return true;
+        return Optional.of(new TransferLegs(from, to));
     }
 }
@@ -1,24 +1,66 @@
 package BankingAssistantChatbot.services;
 
+import BankingAssistantChatbot.services.ConversationMemory.Turn;
+import BankingAssistantChatbot.services.LlmDispatcher.Priority;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.hc.core5.http.io.EofSensorInputStream;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.http.*;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
 
 @Service
 public class AiClientService {
 
     private static final Logger logger = LoggerFactory.getLogger(AiClientService.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
 
     private final RestTemplate restTemplate;
-    private final String LLAMA_URL = "http://localhost:11434/api/chat";
+    private final ModelResponseCache responseCache;
+    private final ConversationMemory conversationMemory;
+    private final LlmDispatcher dispatcher;
+    private final ModelCircuitBreaker circuitBreaker;
+    private final long callBudgetNanos;
+    private final String chatUrl;
+    private final boolean warmUp;
+
+    // cache key -> model call currently running for it
+    private final Map<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
     private static final String MODEL = "qwen2.5-3b-instruct-q4_k_m:latest";
 
+    // failures are neither cached nor remembered in the conversation
+    private static final String NO_CONTENT_REPLY = "No response content from the model.";
+    private static final String MODEL_ERROR_REPLY = "An error occurred while contacting the AI model.";
+    private static final String BUSY_REPLY_TR = "Şu anda çok yoğunum, lütfen birkaç saniye sonra tekrar sorun.";
+    private static final String BUSY_REPLY_EN = "I'm handling a lot of questions right now. Please ask again in a few seconds.";
+    // circuit open: the deterministic intents still work, the model does not
+    private static final String DEGRADED_REPLY_TR = "Şu anda yalnızca temel işlemlerde yardımcı olabiliyorum: bakiye, son işlemler, havale/EFT ve IBAN. Diğer sorularınız için lütfen biraz sonra tekrar deneyin.";
+    private static final String DEGRADED_REPLY_EN = "Right now I can only help with the basics: balance, recent transactions, transfers and IBAN. Please try other questions again a bit later.";
+
     private static final Pattern GREETING =
             Pattern.compile("^(\\s)*(merhaba|selam|salam|hey|hi|hello|sa|slm)(\\s|!|\\.)*$", Pattern.CASE_INSENSITIVE);
 
@@ -51,95 +93,312 @@ public class AiClientService {
         7. If user says "sadece İngilizce konuş", use only English.
         """;
 
-    public AiClientService() {
-        SimpleClientHttpRequestFactory f = new SimpleClientHttpRequestFactory();
-        f.setConnectTimeout(10_000);
-        f.setReadTimeout(180_000);
-        this.restTemplate = new RestTemplate(f);
+    private final OllamaRequestTemplate requestTemplate;
+    private final int maxSentences;
+    private final NumPredictTuner shortNumPredict;
+    private final NumPredictTuner stepsNumPredict;
+
+    private final Counter generationsCutShort;
+    private final Counter callsOverBudget;
+    private final DistributionSummary shortTokens;
+    private final DistributionSummary stepsTokens;
+
+    public AiClientService(ModelResponseCache responseCache,
+                           ConversationMemory conversationMemory,
+                           LlmDispatcher dispatcher,
+                           ModelCircuitBreaker circuitBreaker,
+                           @Qualifier("ollamaRestTemplate") RestTemplate restTemplate,
+                           @Value("${ai.ollama.url:http://localhost:11434}") String ollamaUrl,
+                           @Value("${ai.ollama.keep-alive:30m}") String keepAlive,
+                           @Value("${ai.ollama.warm-up:true}") boolean warmUp,
+                           @Value("${ai.ollama.call-budget:30s}") Duration callBudget,
+                           @Value("${ai.reply.max-sentences:3}") int maxSentences,
+                           @Value("${ai.num-predict.short:80}") int shortNumPredict,
+                           @Value("${ai.num-predict.steps:220}") int stepsNumPredict,
+                           @Value("${ai.num-predict.adaptive:true}") boolean adaptiveNumPredict,
+                           MeterRegistry meterRegistry) {
+        this.restTemplate = restTemplate;
+        this.responseCache = responseCache;
+        this.conversationMemory = conversationMemory;
+        this.dispatcher = dispatcher;
+        this.circuitBreaker = circuitBreaker;
+        this.callBudgetNanos = callBudget.toNanos();
+        this.chatUrl = ollamaUrl + "/api/chat";
+        this.warmUp = warmUp;
+        this.requestTemplate = new OllamaRequestTemplate(MODEL, SYSTEM_PROMPT, keepAlive);
+        this.maxSentences = maxSentences;
+        this.shortNumPredict = new NumPredictTuner(shortNumPredict, adaptiveNumPredict);
+        this.stepsNumPredict = new NumPredictTuner(stepsNumPredict, adaptiveNumPredict);
+
+        this.generationsCutShort = meterRegistry.counter("ai.generation.cut-short");
+        this.callsOverBudget = meterRegistry.counter("ai.generation.over-budget");
+        this.shortTokens = meterRegistry.summary("ai.generation.tokens", "reply", "short");
+        this.stepsTokens = meterRegistry.summary("ai.generation.tokens", "reply", "steps");
+        Gauge.builder("ai.num-predict", this.shortNumPredict, NumPredictTuner::current).tag("reply", "short").register(meterRegistry);
+        Gauge.builder("ai.num-predict", this.stepsNumPredict, NumPredictTuner::current).tag("reply", "steps").register(meterRegistry);
+    }
+
+    // Loads the model at startup, so the first user after a deploy doesn't pay the cold load.
+    // Off the startup thread: a missing Ollama only logs a warning.
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!warmUp) return;
+        CompletableFuture.runAsync(() -> {
+            try {
+                restTemplate.exchange(chatUrl, HttpMethod.POST, jsonEntity(requestTemplate.loadModelBody()), String.class);
+                logger.info("Model {} loaded", MODEL);
+            } catch (Exception e) {
+                logger.warn("Model warm-up failed: {}", e.getMessage());
+            }
+        });
+    }
+
+    public String model() {
+        return MODEL;
     }
 
     public String askModel(String userMessage) {
+        return streamModel(null, userMessage, null);
+    }
+
+    public String streamModel(String userMessage, Consumer<String> onToken) {
+        return streamModel(null, userMessage, onToken);
+    }
+
+    // Reads Ollama's NDJSON stream and hands every content delta to onToken (if any) as soon as it
+    // arrives. The returned text is the final, post-processed reply.
+    // conversationId (the STOMP session, null for none): its earlier turns go into the prompt, and
+    // this turn is remembered for the next one.
+    public String streamModel(String conversationId, String userMessage, Consumer<String> onToken) {
         String msg = userMessage == null ? "" : userMessage.trim();
 
         // 1) Hard guardrails (fast + reliable)
-        if (GREETING.matcher(msg).matches()) {
-            return isTurkish(msg)
-                    ? "Merhaba! Bankacılıkla ilgili nasıl yardımcı olabilirim? (Bakiye, IBAN, havale/EFT, güvenlik vb.)"
-                    : "Hi! How can I help you with banking today? (balance, IBAN, transfers, security, etc.)";
-        }
-
-        if (OUT_OF_SCOPE.matcher(msg).find()) {
-            return isTurkish(msg)
-                    ? "Ben yalnızca bankacılık konularında yardımcı olabilirim. IBAN, bakiye, transfer veya güvenlik hakkında sorabilir misiniz?"
-                    : "I can only help with banking topics. Could you ask about IBAN, balance, transfers, or security?";
+        String guardrail = guardrailReply(msg);
+        if (guardrail != null) {
+            return guardrail;
         }
 
         boolean wantsStepByStep = STEP_BY_STEP.matcher(msg).find();
+        List<Turn> history = conversationMemory.history(conversationId);
+        Priority priority = conversationId == null ? Priority.LOW
+                : history.isEmpty() ? Priority.NORMAL : Priority.HIGH;
+        // read once: the request, the cache key and the coalescing key all use the same limit
+        int numPredict = (wantsStepByStep ? stepsNumPredict : shortNumPredict).current();
+        String cacheKey = ModelResponseCache.key(msg, isTurkish(msg), wantsStepByStep, numPredict);
 
-        Map<String, Object> payload = new HashMap<>();
-        payload.put("model", MODEL);
-        payload.put("stream", false);
-        payload.put("messages", List.of(
-                Map.of("role", "system", "content", SYSTEM_PROMPT),
-                Map.of("role", "user", "content", msg)
-        ));
-
-        // 2) Make answers short by default, longer only when requested
-        Map<String, Object> options = new HashMap<>();
-        options.put("temperature", 0.0);
-        options.put("top_p", 0.9);
-
-        if (wantsStepByStep) {
-            options.put("num_predict", 220); // allow longer instructions
-            options.put("stop", List.of("```")); // still block code fences
+        String reply;
+        if (history.isEmpty()) {
+            // a cache hit is answered in one piece, there is nothing to stream
+            reply = responseCache.get(cacheKey);
+            if (reply == null) {
+                // only the leader streams; coalesced callers get the final reply in one piece
+                reply = singleFlight(cacheKey, () -> guardedCall(priority, msg, cacheKey,
+                        () -> callModel(List.of(), msg, wantsStepByStep, numPredict, cacheKey, onToken)));
+            }
         } else {
-            options.put("num_predict", 80); // short & faster
-            options.put("stop", List.of("```", "\n\n", "User:", "Kullanıcı:", "System:"));
+            // the answer depends on this conversation: not cached, not shared with other sessions
+            reply = guardedCall(priority, msg, cacheKey,
+                    () -> callModel(history, msg, wantsStepByStep, numPredict, null, onToken));
+        }
+
+        if (!isFailure(reply)) {
+            conversationMemory.record(conversationId, msg, reply);
+        }
+        return reply;
+    }
+
+    private static boolean isFailure(String reply) {
+        return NO_CONTENT_REPLY.equals(reply) || MODEL_ERROR_REPLY.equals(reply)
+                || BUSY_REPLY_TR.equals(reply) || BUSY_REPLY_EN.equals(reply)
+                || DEGRADED_REPLY_TR.equals(reply) || DEGRADED_REPLY_EN.equals(reply);
+    }
+
+    // While the circuit is open the call neither queues for a slot nor waits on the model
+    private String guardedCall(Priority priority, String msg, String cacheKey, Supplier<String> modelCall) {
+        if (!circuitBreaker.allowsCalls()) {
+            return degradedReply(msg, cacheKey);
+        }
+        return dispatcher.submit(priority,
+                // checked again with the slot held: half-open lets only the probe calls through
+                () -> circuitBreaker.tryAcquire() ? modelCall.get() : degradedReply(msg, cacheKey),
+                () -> isTurkish(msg) ? BUSY_REPLY_TR : BUSY_REPLY_EN);
+    }
+
+    // A cached answer to the same question is still good (also mid-conversation, where it is
+    // normally not used); otherwise point at what works without the model.
+    // peek: outside a conversation this key's miss was already counted before the call
+    private String degradedReply(String msg, String cacheKey) {
+        String cached = responseCache.peek(cacheKey);
+        if (cached != null) return cached;
+        return isTurkish(msg) ? DEGRADED_REPLY_TR : DEGRADED_REPLY_EN;
+    }
+
+    // Identical prompts (same cache key => same text, language, reply kind and num_predict) that
+    // arrive while a call is still running wait for that call instead of queueing another one on Ollama.
+    // If the call throws, the waiting callers get the failure too; the next call starts afresh.
+    String singleFlight(String key, Supplier<String> modelCall) {
+        CompletableFuture<String> mine = new CompletableFuture<>();
+        CompletableFuture<String> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            return running.join();
         }
 
-        payload.put("options", options);
+        try {
+            String reply = modelCall.get();
+            mine.complete(reply);
+            return reply;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    // Always streams, also when nobody is listening (onToken == null): reading token by token is
+    // what lets a short reply stop the generation once it has its sentences.
+    // cacheKey == null: the reply is not cached. Every outcome is reported to the circuit breaker.
+    private String callModel(List<Turn> history, String msg, boolean wantsStepByStep, int numPredict,
+                             String cacheKey, Consumer<String> onToken) {
+        NumPredictTuner tuner = wantsStepByStep ? stepsNumPredict : shortNumPredict;
 
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setAccept(List.of(MediaType.APPLICATION_NDJSON));
+        HttpEntity<byte[]> request = new HttpEntity<>(requestTemplate.render(history, msg, wantsStepByStep, numPredict), headers);
+        SentenceBudget budget = new SentenceBudget(wantsStepByStep ? 0 : maxSentences);
+        long deadline = System.nanoTime() + callBudgetNanos;
 
         try {
-            ResponseEntity<Map> response = restTemplate.exchange(
-                    LLAMA_URL, HttpMethod.POST, new HttpEntity<>(payload, headers), Map.class);
+            Generated generated = restTemplate.execute(
+                    chatUrl,
+                    HttpMethod.POST,
+                    restTemplate.httpEntityCallback(request),
+                    response -> readStream(response, budget, deadline, onToken));
 
-            if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-                Map body = response.getBody();
-                Map messageObj = (Map) body.get("message");
-                Object content = messageObj == null ? null : messageObj.get("content");
+            if (generated.overBudget()) {
+                // too slow counts as failing; what already reached the user is kept, not cached
+                circuitBreaker.onFailure();
+                if (generated.text().isBlank()) return MODEL_ERROR_REPLY;
+                return finish(generated.text().trim(), wantsStepByStep);
+            }
+            circuitBreaker.onSuccess();
+
+            tuner.observe(generated.tokens());
+            (wantsStepByStep ? stepsTokens : shortTokens).record(generated.tokens());
+
+            if (generated.text().isBlank()) {
+                return NO_CONTENT_REPLY;
+            }
+
+            String reply = finish(generated.text().trim(), wantsStepByStep);
+            if (cacheKey != null) responseCache.put(cacheKey, reply);
+            return reply;
 
-                String text = content != null ? content.toString().trim() : "No response content from the model.";
+        } catch (Exception e) {
+            circuitBreaker.onFailure();
+            logger.error("Error while streaming from Ollama model:", e);
+            return MODEL_ERROR_REPLY;
+        }
+    }
+
+    private record Generated(String text, int tokens, boolean overBudget) { }
+
+    // The socket read timeout bounds the wait for each chunk; the deadline bounds the whole call
+    private Generated readStream(ClientHttpResponse response, SentenceBudget budget, long deadline,
+                                 Consumer<String> onToken) throws IOException {
+        if (response.getStatusCode() != HttpStatus.OK) {
+            throw new IOException("Non-OK response: " + response.getStatusCode());
+        }
 
-                // 3) Final safety: enforce 2–3 sentences unless step-by-step asked
-                if (!wantsStepByStep) {
-                    text = keepMaxSentences(text, 3);
+        StringBuilder sb = new StringBuilder();
+        int tokens = 0; // Ollama streams one token per chunk
+        InputStream body = response.getBody();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) continue;
+
+            JsonNode chunk = MAPPER.readTree(line);
+            if (chunk.hasNonNull("error")) {
+                throw new IOException("Ollama error: " + chunk.get("error").asText());
+            }
+
+            String delta = chunk.path("message").path("content").asText("");
+            if (!delta.isEmpty()) {
+                tokens++;
+                int keep = budget.accept(delta);
+                if (keep > 0) {
+                    String part = keep == delta.length() ? delta : delta.substring(0, keep);
+                    sb.append(part);
+                    if (onToken != null) onToken.accept(part);
+                }
+                if (budget.exhausted()) {
+                    cancel(body);
+                    generationsCutShort.increment();
+                    break;
                 }
+            }
 
-                // remove accidental code fences if any
-                text = text.replace("```", "").trim();
+            if (chunk.path("done").asBoolean(false)) break;
 
-                return text;
+            if (System.nanoTime() - deadline > 0) {
+                cancel(body);
+                callsOverBudget.increment();
+                return new Generated(sb.toString(), tokens, true);
             }
+        }
+        return new Generated(sb.toString(), tokens, false);
+    }
 
-            logger.error("Non-OK response: {}", response.getStatusCode());
-            return "Failed to get a response from the AI model.";
+    // Closing the response normally reads it to the end, i.e. waits for Ollama to finish generating.
+    // Aborting drops the connection instead, and Ollama stops generating when its client goes away.
+    private static void cancel(InputStream body) throws IOException {
+        if (body instanceof EofSensorInputStream stream) {
+            stream.abort();
+        }
+    }
 
-        } catch (Exception e) {
-            logger.error("Error while calling Ollama model:", e);
-            return "An error occurred while contacting the AI model.";
+    private String guardrailReply(String msg) {
+        if (GREETING.matcher(msg).matches()) {
+            return isTurkish(msg)
+                    ? "Merhaba! Bankacılıkla ilgili nasıl yardımcı olabilirim? (Bakiye, IBAN, havale/EFT, güvenlik vb.)"
+                    : "Hi! How can I help you with banking today? (balance, IBAN, transfers, security, etc.)";
+        }
+
+        if (OUT_OF_SCOPE.matcher(msg).find()) {
+            return isTurkish(msg)
+                    ? "Ben yalnızca bankacılık konularında yardımcı olabilirim. IBAN, bakiye, transfer veya güvenlik hakkında sorabilir misiniz?"
+                    : "I can only help with banking topics. Could you ask about IBAN, balance, transfers, or security?";
+        }
+
+        return null;
+    }
+
+    // body is already JSON: written as-is, no per-call serialization of the prompt
+    private static HttpEntity<byte[]> jsonEntity(byte[] body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return new HttpEntity<>(body, headers);
+    }
+
+    private String finish(String text, boolean wantsStepByStep) {
+        // 3) Final safety: enforce 2–3 sentences unless step-by-step asked
+        if (!wantsStepByStep) {
+            text = keepMaxSentences(text, maxSentences);
         }
+
+        // remove accidental code fences if any
+        return text.replace("```", "").trim();
     }
 
-    private boolean isTurkish(String s) {
+    static boolean isTurkish(String s) {
         String lower = s.toLowerCase(Locale.ROOT);
         return lower.contains("merhaba") || lower.contains("selam") || lower.contains("havale") || lower.contains("eft")
                 || lower.matches(".*[çğıöşü].*");
     }
 
-    private String keepMaxSentences(String text, int maxSentences) {
+    static String keepMaxSentences(String text, int maxSentences) {
         // naive but effective for TR/EN: split by . ! ?
         String[] parts = text.split("(?<=[.!?])\\s+");
         if (parts.length <= maxSentences) return text;
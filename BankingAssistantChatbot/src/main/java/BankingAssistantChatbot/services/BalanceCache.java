@@ -0,0 +1,109 @@
+package BankingAssistantChatbot.services;
+
+import BankingAssistantChatbot.model.Account;
+import BankingAssistantChatbot.model.Money;
+import BankingAssistantChatbot.services.BalanceCacheBackend.CachedBalance;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+// Balances by IBAN. Writers publish the new balance when their transaction commits, so a customer
+// who just made a transfer sees the new balance on the next read. Every entry carries the account
+// row's version and is only ever replaced by a newer one: neither a value read from the database
+// before a commit nor the hook of an earlier transfer that runs late can overwrite a newer balance.
+// The TTL bounds how long any other staleness can last.
+@Component
+public class BalanceCache {
+
+    // a balance as read from the database, with its row version
+    public record Snapshot(Money balance, long version) { }
+
+    private final BalanceCacheBackend backend;
+    private final long ttlMillis;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter updates;
+    private final Counter invalidations;
+
+    public BalanceCache(BalanceCacheBackend backend,
+                        @Value("${balance.cache.ttl:30s}") Duration ttl,
+                        MeterRegistry meterRegistry) {
+        this.backend = backend;
+        this.ttlMillis = ttl.toMillis();
+
+        this.hits = meterRegistry.counter("balance.cache.requests", "result", "hit");
+        this.misses = meterRegistry.counter("balance.cache.requests", "result", "miss");
+        this.updates = meterRegistry.counter("balance.cache.updates");
+        this.invalidations = meterRegistry.counter("balance.cache.invalidations");
+        Gauge.builder("balance.cache.size", backend, BalanceCacheBackend::size).register(meterRegistry);
+    }
+
+    // loader returns null for an unknown IBAN; that is not cached
+    public Money get(String iban, Function<String, Snapshot> loader) {
+        CachedBalance cached = backend.get(iban);
+        long now = System.currentTimeMillis();
+        if (cached != null && cached.expiresAt() > now) {
+            hits.increment();
+            return cached.balance();
+        }
+        misses.increment();
+        if (cached != null) backend.remove(iban, cached); // expired: clear the slot for the fill below
+
+        Snapshot loaded = loader.apply(iban);
+        if (loaded == null) {
+            return null;
+        }
+        backend.putIfNewer(iban, new CachedBalance(loaded.balance(), loaded.version(), now + ttlMillis));
+        return loaded.balance();
+    }
+
+    // Call from inside the transaction that changed the balance; nothing is published on rollback.
+    // Balance and version are read from the entity once committed: Hibernate assigns the new
+    // version when it flushes the UPDATE.
+    public void updateAfterCommit(Account account) {
+        afterCommit(() -> {
+            backend.putIfNewer(account.getIban(), new CachedBalance(account.getBalance(), account.getVersion(),
+                    System.currentTimeMillis() + ttlMillis));
+            updates.increment();
+        });
+    }
+
+    public int invalidateAll() {
+        int n = backend.clear();
+        invalidations.increment(n);
+        return n;
+    }
+
+    public int size() {
+        return backend.size();
+    }
+
+    public double hitCount() {
+        return hits.count();
+    }
+
+    public double missCount() {
+        return misses.count();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,24 @@
+package BankingAssistantChatbot.services;
+
+import BankingAssistantChatbot.model.Money;
+
+// Storage behind BalanceCache, see BalanceCacheConfig. A shared store (e.g. Redis) can be plugged
+// in by declaring a @Primary bean of this type. Implementations must make putIfNewer/remove atomic
+// per key: that is what keeps a slow reader or a late commit hook from overwriting a newer balance.
+public interface BalanceCacheBackend {
+
+    // version is the account row's; expiresAt is wall-clock millis so entries mean the same thing on every node
+    record CachedBalance(Money balance, long version, long expiresAt) { }
+
+    CachedBalance get(String iban);
+
+    // Stores value unless the slot already holds the same or a newer version
+    void putIfNewer(String iban, CachedBalance value);
+
+    // Removes the entry only if it is still the given one
+    void remove(String iban, CachedBalance expected);
+
+    int clear();
+
+    int size();
+}
@@ -1,16 +1,16 @@
 package BankingAssistantChatbot.services;
 
-import BankingAssistantChatbot.model.Account;
+import BankingAssistantChatbot.model.Money;
 import BankingAssistantChatbot.model.Transaction;
 import BankingAssistantChatbot.repository.TransactionRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import BankingAssistantChatbot.exceptions.InsufficientBalanceException;
 import BankingAssistantChatbot.exceptions.InvalidIbanException;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.List;
+import java.util.Optional;
 
 @Service
 public class BankingService {
@@ -18,13 +18,10 @@ public class BankingService {
     private final AccountService accountService;
     private final TransactionRepository transactionRepository;
 
-
+    // Turkish IBAN format: TRkk BBBB BRCC CCCC CCCC CCCC CC (TR + 24 digits, 26 chars);
+    // the same rule the intent router uses for IBANs found in chat messages
     public boolean isValidIban(String iban) {
-        // Turkish IBAN format: TRkk BBBB BBBB CCCC CCCC CCCC CCCC
-        String ibanPattern = "TR\\d{2}[0-9]{4}[0-9]{4}[0-9]{4}[0-9]{4}[0-9]{4}";
-        Pattern pattern = Pattern.compile(ibanPattern);
-        Matcher matcher = pattern.matcher(iban);
-        return matcher.matches();
+        return IntentRouter.isValidTrIban(iban);
     }
 
     public BankingService(AccountService accountService, TransactionRepository transactionRepository) {
@@ -32,34 +29,29 @@ public class BankingService {
         this.transactionRepository = transactionRepository;
     }
 
-    public Double getBalance(String iban) {
-        Account account = accountService.findByIban(iban);
-        return (account == null) ? null : account.getBalance().doubleValue();
+    public Money getBalance(String iban) {
+        return accountService.getBalance(iban);
     }
 
-    public boolean transfer(String fromIban, String toIban, Double amount) throws InvalidIbanException, InsufficientBalanceException {
+    // One transaction: both accounts are resolved (and locked) once, balances updated,
+    // and both ledger rows inserted together.
+    @Transactional
+    public boolean transfer(String fromIban, String toIban, Money amount) throws InvalidIbanException, InsufficientBalanceException {
         if (!isValidIban(fromIban) || !isValidIban(toIban)) {
             throw new InvalidIbanException("Invalid IBAN format");
         }
-        if (amount <= 0 || getBalance(fromIban).compareTo(amount) < 0) {
+        if (amount == null || !amount.isPositive()) {
             throw new InsufficientBalanceException("Insufficient balance");
         }
 
-        Account from = accountService.findByIban(fromIban);
-        Account to = accountService.findByIban(toIban);
-
-        if (from == null || to == null) return false;
-
-        boolean ok = accountService.transfer(from, to, BigDecimal.valueOf(amount));
-        if (!ok) return false;
+        Optional<AccountService.TransferLegs> legs = accountService.transfer(fromIban, toIban, amount);
+        if (legs.isEmpty()) return false;
 
         // Transaction records
-        transactionRepository.save(new Transaction(
-                from, -amount, "TRANSFER_OUT", LocalDateTime.now()
-        ));
-
-        transactionRepository.save(new Transaction(
-                to, amount, "TRANSFER_IN", LocalDateTime.now()
+        LocalDateTime now = LocalDateTime.now();
+        transactionRepository.saveAll(List.of(
+                new Transaction(legs.get().from(), amount.negate(), "TRANSFER_OUT", now),
+                new Transaction(legs.get().to(), amount, "TRANSFER_IN", now)
         ));
 
         return true;
@@ -0,0 +1,139 @@
+package BankingAssistantChatbot.services;
+
+import BankingAssistantChatbot.dto.ChatMessageDTO;
+import BankingAssistantChatbot.dto.ChatUser;
+import BankingAssistantChatbot.model.ChatLog;
+import BankingAssistantChatbot.services.ChatbotService.Reply;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+@Service
+public class ChatDispatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChatDispatchService.class);
+
+    private static final String BOT_SENDER = "BANK-BOT";
+    // clients subscribe to /user/queue/replies; each session only receives its own replies
+    private static final String REPLY_QUEUE = "/queue/replies";
+
+    private final ChatbotService chatbotService;
+    private final ChatLogWriter chatLogWriter;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final TaskExecutor chatExecutor;
+    private final int maxInFlightPerSession;
+
+    // sessionId -> permits for messages still being answered
+    private final Map<String, Semaphore> inFlight = new ConcurrentHashMap<>();
+
+    public ChatDispatchService(ChatbotService chatbotService,
+                               ChatLogWriter chatLogWriter,
+                               SimpMessagingTemplate messagingTemplate,
+                               @Qualifier("chatExecutor") TaskExecutor chatExecutor,
+                               @Value("${chat.session.max-in-flight:2}") int maxInFlightPerSession) {
+        this.chatbotService = chatbotService;
+        this.chatLogWriter = chatLogWriter;
+        this.messagingTemplate = messagingTemplate;
+        this.chatExecutor = chatExecutor;
+        this.maxInFlightPerSession = maxInFlightPerSession;
+    }
+
+    // Called on the inbound channel thread: only hands the turn off, never waits for the reply
+    public void dispatch(String sessionId, ChatUser user, ChatMessageDTO message) {
+        long startNanos = System.nanoTime();
+        String replyId = UUID.randomUUID().toString();
+
+        if (message == null || message.getContent() == null || message.getContent().isBlank()) {
+            publish(sessionId, new ChatMessageDTO(BOT_SENDER, "Please send a valid message.", "BOT", replyId, true));
+            return;
+        }
+
+        if (user == null) {
+            publish(sessionId, new ChatMessageDTO(BOT_SENDER, "You need to log in first.", "BOT", replyId, true));
+            return;
+        }
+
+        // sender may pick one of the user's own accounts; anything else is refused, blank means the default one
+        String iban = message.getSender() == null || message.getSender().isBlank()
+                ? user.defaultIban()
+                : message.getSender();
+        if (!user.owns(iban)) {
+            publish(sessionId, new ChatMessageDTO(BOT_SENDER,
+                    iban == null ? "No account is linked to your login." : "This IBAN does not belong to you.",
+                    "BOT", replyId, true));
+            return;
+        }
+        Long accountId = user.accountId(iban);
+
+        Semaphore permits = inFlight.computeIfAbsent(sessionId, id -> new Semaphore(maxInFlightPerSession));
+        if (!permits.tryAcquire()) {
+            publish(sessionId, new ChatMessageDTO(BOT_SENDER,
+                    "Please wait for the previous answer before sending a new message.", "BOT", replyId, true));
+            return;
+        }
+
+        try {
+            chatExecutor.execute(() -> {
+                try {
+                    reply(sessionId, user, iban, accountId, message, replyId, startNanos);
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (TaskRejectedException e) {
+            permits.release();
+            logger.warn("Chat executor saturated, rejecting message from session {}", sessionId);
+            publish(sessionId, new ChatMessageDTO(BOT_SENDER,
+                    "The assistant is busy right now. Please try again in a moment.", "BOT", replyId, true));
+        }
+    }
+
+    private void reply(String sessionId, ChatUser user, String iban, Long accountId, ChatMessageDTO message,
+                       String replyId, long startNanos) {
+        Reply reply;
+        try {
+            // LLM replies are pushed chunk by chunk; the last frame is the final ("done") reply
+            reply = chatbotService.answer(sessionId, iban, accountId, message.getContent(),
+                    token -> publish(sessionId, new ChatMessageDTO(BOT_SENDER, token, "BOT_STREAM", replyId, false)));
+        } catch (Exception e) {
+            logger.error("Error while generating chat reply:", e);
+            reply = new Reply("An error occurred. Please try again later.", null, null);
+        }
+
+        publish(sessionId, new ChatMessageDTO(BOT_SENDER, reply.text(), "BOT", replyId, true));
+
+        // audit entry: queued here, inserted in batches by the writer
+        chatLogWriter.log(new ChatLog(sessionId, user.email(), iban, message.getContent(), reply.text(),
+                reply.intent() == null ? null : reply.intent().name(), reply.model(),
+                (System.nanoTime() - startNanos) / 1_000_000, LocalDateTime.now()));
+    }
+
+    // Addressed by session id rather than user name: the user destination resolver then targets
+    // exactly this session, with no user-registry lookup and no copies to the user's other tabs
+    private void publish(String sessionId, ChatMessageDTO reply) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        headers.setSessionId(sessionId);
+        headers.setLeaveMutable(true);
+        messagingTemplate.convertAndSendToUser(sessionId, REPLY_QUEUE, reply, headers.getMessageHeaders());
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        inFlight.remove(event.getSessionId());
+    }
+}
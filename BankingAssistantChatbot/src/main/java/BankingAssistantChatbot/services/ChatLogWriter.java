@@ -0,0 +1,171 @@
+package BankingAssistantChatbot.services;
+
+import BankingAssistantChatbot.model.ChatLog;
+import BankingAssistantChatbot.repository.ChatLogRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Write-behind for the chat audit log: chat threads only enqueue, one background thread inserts
+// the queued turns in batches (one saveAll per batch, which Hibernate sends as a JDBC batch).
+// On shutdown whatever is still queued is written before the repository goes away.
+@Component
+public class ChatLogWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChatLogWriter.class);
+
+    // What log() does when the queue is full:
+    //   DROP        - lose the entry (counted in chat.log.dropped); the chat never waits
+    //   BLOCK       - wait up to chat.log.max-block for room, then drop
+    //   CALLER_RUNS - insert it on the calling chat thread; nothing is lost, that turn gets slower
+    public enum OverflowPolicy { DROP, BLOCK, CALLER_RUNS }
+
+    // wakes the flusher on close(); never written
+    private static final ChatLog CLOSE = new ChatLog();
+
+    private final ChatLogRepository chatLogRepository;
+    private final BlockingQueue<ChatLog> queue;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final OverflowPolicy overflowPolicy;
+    private final long maxBlockMillis;
+
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter failed;
+    private final Timer flushTimer;
+
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    public ChatLogWriter(ChatLogRepository chatLogRepository,
+                         @Value("${chat.log.queue-capacity:10000}") int queueCapacity,
+                         @Value("${chat.log.batch-size:50}") int batchSize,
+                         @Value("${chat.log.flush-interval:1s}") Duration flushInterval,
+                         @Value("${chat.log.overflow-policy:caller-runs}") OverflowPolicy overflowPolicy,
+                         @Value("${chat.log.max-block:100ms}") Duration maxBlock,
+                         MeterRegistry meterRegistry) {
+        this.chatLogRepository = chatLogRepository;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushInterval.toMillis();
+        this.overflowPolicy = overflowPolicy;
+        this.maxBlockMillis = maxBlock.toMillis();
+
+        this.written = meterRegistry.counter("chat.log.written");
+        this.dropped = meterRegistry.counter("chat.log.dropped");
+        this.failed = meterRegistry.counter("chat.log.failed");
+        this.flushTimer = meterRegistry.timer("chat.log.flush");
+        Gauge.builder("chat.log.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+
+        this.flusher = new Thread(this::flushLoop, "chat-log-writer");
+        this.flusher.setDaemon(true); // close() drains on context shutdown; this must not keep the JVM alive
+        this.flusher.start();
+    }
+
+    public void log(ChatLog entry) {
+        if (!running) {
+            write(List.of(entry)); // shutting down: the flusher may already be gone
+            return;
+        }
+        if (queue.offer(entry)) {
+            return;
+        }
+
+        switch (overflowPolicy) {
+            case CALLER_RUNS -> write(List.of(entry));
+            case BLOCK -> {
+                try {
+                    if (!queue.offer(entry, maxBlockMillis, TimeUnit.MILLISECONDS)) dropped.increment();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    dropped.increment();
+                }
+            }
+            case DROP -> dropped.increment();
+        }
+    }
+
+    public int queued() {
+        return queue.size();
+    }
+
+    public double writtenCount() {
+        return written.count();
+    }
+
+    public double droppedCount() {
+        return dropped.count();
+    }
+
+    // The chat executor is shut down (and waits for running turns) before this runs,
+    // see ChatExecutorConfig, so no new turns arrive while the queue is drained.
+    @PreDestroy
+    public void close() throws InterruptedException {
+        // woken with a marker instead of an interrupt, which could abort an insert in progress.
+        // A full queue means the flusher is busy writing and sees the flag right after.
+        running = false;
+        queue.offer(CLOSE);
+        flusher.join();
+
+        List<ChatLog> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            batch.remove(CLOSE);
+            if (!batch.isEmpty()) write(batch);
+            batch.clear();
+        }
+    }
+
+    private void flushLoop() {
+        List<ChatLog> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                ChatLog first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null || first == CLOSE) continue;
+                batch.add(first);
+
+                // give a partial batch until the flush interval to fill up
+                long deadline = System.currentTimeMillis() + flushIntervalMillis;
+                while (batch.size() < batchSize) {
+                    if (queue.drainTo(batch, batchSize - batch.size()) > 0) continue;
+                    long wait = deadline - System.currentTimeMillis();
+                    ChatLog next = wait > 0 ? queue.poll(wait, TimeUnit.MILLISECONDS) : null;
+                    if (next == null || next == CLOSE) break;
+                    batch.add(next);
+                }
+                batch.remove(CLOSE); // drained along with the entries
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false; // close() drains whatever is left
+            }
+
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<ChatLog> batch) {
+        try {
+            flushTimer.record(() -> chatLogRepository.saveAll(batch));
+            written.increment(batch.size());
+        } catch (RuntimeException e) {
+            failed.increment(batch.size());
+            logger.error("Could not write {} chat log entries", batch.size(), e);
+        }
+    }
+}
@@ -1,55 +1,82 @@
 package BankingAssistantChatbot.services;
 
-import BankingAssistantChatbot.model.Account;
-import BankingAssistantChatbot.model.Transaction;
+import BankingAssistantChatbot.dto.AccountInfoDTO;
+import BankingAssistantChatbot.dto.TransactionDTO;
+import BankingAssistantChatbot.exceptions.InsufficientBalanceException;
+import BankingAssistantChatbot.exceptions.InvalidIbanException;
+import BankingAssistantChatbot.model.Money;
 import BankingAssistantChatbot.repository.AccountRepository;
+import BankingAssistantChatbot.services.IntentRouter.Intent;
+import BankingAssistantChatbot.services.IntentRouter.Lang;
+import BankingAssistantChatbot.services.IntentRouter.Route;
 import org.springframework.stereotype.Service;
 
+import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.regex.*;
+import java.util.function.Consumer;
 
 @Service
 public class ChatbotService {
 
+    private static final DateTimeFormatter TX_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
     private final AiClientService aiClientService;
     private final BankingService bankingService;
     private final TransactionService transactionService;
     private final AccountRepository accountRepository;
-
-    private enum Lang { TR, EN }
-
-    private static final Pattern TR_IBAN_ANYWHERE = Pattern.compile("\\bTR\\d{24}\\b", Pattern.CASE_INSENSITIVE);
-    private static final Pattern AMOUNT_ANYWHERE  = Pattern.compile("(?<!\\d)(\\d+(?:[\\.,]\\d+)?)\\b");
-
-    private static final Set<String> TR_HINTS = Set.of(
-            "bakiye","bakiyem","gönder","gonder","havale","eft","işlem","islem","son","yardım","yardim","nasıl","nasil"
-    );
-    private static final Set<String> EN_HINTS = Set.of(
-            "balance","send","transfer","how","last","transactions","help","format"
-    );
+    private final IntentRouter intentRouter;
 
     public ChatbotService(AiClientService aiClientService,
                           BankingService bankingService,
                           TransactionService transactionService,
-                          AccountRepository accountRepository) {
+                          AccountRepository accountRepository,
+                          IntentRouter intentRouter) {
         this.aiClientService = aiClientService;
         this.bankingService = bankingService;
         this.transactionService = transactionService;
         this.accountRepository = accountRepository;
+        this.intentRouter = intentRouter;
     }
 
     public String generateResponse(String userIban, String userMessage) {
-        if (userIban == null || userIban.isBlank()) {
-            return trOrEn(detectLanguage(userMessage),
-                    "Lütfen IBAN bilgisini girin.",
-                    "Please provide your IBAN.");
+        return generateResponse(userIban, userMessage, null);
+    }
+
+    public String generateResponse(String userIban, String userMessage, Consumer<String> onToken) {
+        return generateResponse(userIban, null, userMessage, onToken);
+    }
+
+    public String generateResponse(String userIban, Long accountId, String userMessage, Consumer<String> onToken) {
+        return answer(null, userIban, accountId, userMessage, onToken).text();
+    }
+
+    // model is set only when the turn was handed to the language model
+    public record Reply(String text, Intent intent, String model) { }
+
+    // onToken != null streams the LLM fall-through reply; deterministic intents always answer in one piece.
+    // accountId != null means the caller already resolved and authorized the account (STOMP session),
+    // so no lookup is needed. conversationId keys the model's memory of earlier turns (null: none).
+    public Reply answer(String conversationId, String userIban, Long accountId, String userMessage, Consumer<String> onToken) {
+        // one pass over the message: intent, language and transfer slots
+        Route route = intentRouter.route(userMessage);
+
+        String text = answerDeterministic(route, userIban, accountId, userMessage);
+        if (text != null) {
+            return new Reply(text, route.intent(), null);
         }
 
-        Lang lang = detectLanguage(userMessage);
+        text = aiClientService.streamModel(conversationId, userMessage, onToken);
+        return new Reply(text, route.intent(), aiClientService.model());
+    }
+
+    // null: nothing matched, the model answers
+    private String answerDeterministic(Route route, String userIban, Long accountId, String userMessage) {
+        Lang lang = route.lang();
 
-        Account account = accountRepository.findByIban(userIban).orElse(null);
-        if (account == null) {
-            return trOrEn(lang, "Hesap bulunamadı.", "Account not found.");
+        if (userIban == null || userIban.isBlank()) {
+            return trOrEn(lang,
+                    "Lütfen IBAN bilgisini girin.",
+                    "Please provide your IBAN.");
         }
 
         if (!isUserAuthenticated(userIban)) {
@@ -60,143 +87,114 @@ public class ChatbotService {
             return trOrEn(lang, "Lütfen bir mesaj yazın.", "Please type a message.");
         }
 
-        String raw = userMessage.trim();
-        String msg = normalize(raw);
-
-        if (containsAny(msg, "iban format", "iban nasıl", "iban nasil", "iban formatı", "iban formati")) {
-            return trOrEn(lang,
-                    "IBAN, uluslararası banka hesap numarasıdır. Türkiye için format: TR + 2 kontrol hanesi + 24 rakam (toplam 26 karakter). Örn: TR12000620000000000000000001",
-                    "IBAN is an International Bank Account Number. For Turkey: 'TR' + 24 digits (26 chars total). Example: TR12000620000000000000000001");
+        // transfers resolve both accounts inside the transfer transaction; no lookup up front
+        if (route.intent() == Intent.TRANSFER) {
+            return transfer(userIban, route, lang);
         }
 
-        if (containsAny(msg, "transfer nasıl yapılır", "transfer nasil yapilir", "how to transfer", "how do i transfer")) {
-            return trOrEn(lang,
-                    "Transfer yapmak için alıcı IBAN ve tutarı belirtin. Örn: 'TRxxxxxxxxxxxxxxxxxxxxxxxx 100 TL gönder'.",
-                    "To make a transfer, provide recipient IBAN and amount. Example: 'Send 100 TL to TRxxxxxxxxxxxxxxxxxxxxxxxx'.");
-        }
-
-        if (containsAny(msg, "bakiye", "bakiyem", "balance")) {
-            Double balance = bankingService.getBalance(userIban);
+        // balance is usually a cache hit, so it doesn't wait for the account lookup either
+        if (route.intent() == Intent.BALANCE) {
+            Money balance = bankingService.getBalance(userIban);
             if (balance == null) {
                 return trOrEn(lang, "IBAN'ınıza ait hesap bulunamadı.", "I could not find an account for your IBAN.");
             }
+            String formatted = MoneyFormat.of(lang).format(balance);
             return trOrEn(lang,
-                    "Güncel bakiyeniz: " + formatMoney(balance) + " TL.",
-                    "Your current balance is: " + formatMoney(balance) + " TL.");
+                    "Güncel bakiyeniz: " + formatted + " TL.",
+                    "Your current balance is: " + formatted + " TL.");
         }
 
-        if (containsAny(msg, "son 10 işlem", "son 10 islem", "last 10 transactions")) {
-            List<Transaction> tx = transactionService.getLast10Transactions(account);
-            if (tx == null || tx.isEmpty()) {
-                return trOrEn(lang, "Yakın zamanda işlem bulunamadı.", "No recent transactions found.");
+        if (accountId == null) {
+            AccountInfoDTO account = accountRepository.findInfoByIban(userIban).orElse(null);
+            if (account == null) {
+                return trOrEn(lang, "Hesap bulunamadı.", "Account not found.");
             }
-            return trOrEn(lang,
-                    "Son 10 işleminiz:\n" + formatTransactions(tx),
-                    "Your last 10 transactions:\n" + formatTransactions(tx));
+            accountId = account.getId();
         }
 
-        if (containsAny(msg, "transfer", "gönder", "gonder", "send")) {
-            String targetIban = extractIban(raw);
-            Double amount = extractAmount(raw);
-
-            if (amount == null || amount <= 0) {
+        switch (route.intent()) {
+            case IBAN_FORMAT:
                 return trOrEn(lang,
-                        "Gönderilecek tutarı yazın. Örn: '100 TL gönder'.",
-                        "Please specify the amount. Example: 'Send 100 TL'.");
-            }
+                        "IBAN, uluslararası banka hesap numarasıdır. Türkiye için format: TR + 2 kontrol hanesi + 24 rakam (toplam 26 karakter). Örn: TR12000620000000000000000001",
+                        "IBAN is an International Bank Account Number. For Turkey: 'TR' + 24 digits (26 chars total). Example: TR12000620000000000000000001");
 
-            if (targetIban == null) {
+            case TRANSFER_HELP:
                 return trOrEn(lang,
-                        "Alıcı IBAN'ı yazın. Örn: 'TR... 100 TL gönder'.",
-                        "Please provide the recipient IBAN. Example: 'TR... send 100 TL'.");
-            }
-
-            if (!isValidTrIban(targetIban)) {
-                return trOrEn(lang,
-                        "IBAN formatı hatalı. TR ile başlayan 26 karakterlik IBAN girin.",
-                        "Invalid IBAN format. Provide a Turkish IBAN starting with TR (26 chars).");
-            }
-
-            Double balance = bankingService.getBalance(userIban);
-            if (balance == null || balance < amount) {
+                        "Transfer yapmak için alıcı IBAN ve tutarı belirtin. Örn: 'TRxxxxxxxxxxxxxxxxxxxxxxxx 100 TL gönder'.",
+                        "To make a transfer, provide recipient IBAN and amount. Example: 'Send 100 TL to TRxxxxxxxxxxxxxxxxxxxxxxxx'.");
+
+            case LAST_TRANSACTIONS: {
+                List<TransactionDTO> tx = transactionService.getLast10Transactions(accountId);
+                if (tx == null || tx.isEmpty()) {
+                    return trOrEn(lang, "Yakın zamanda işlem bulunamadı.", "No recent transactions found.");
+                }
+                String list = formatTransactions(tx, MoneyFormat.of(lang));
                 return trOrEn(lang,
-                        "Bu transfer için bakiyeniz yetersiz.",
-                        "Your balance is insufficient for this transfer.");
+                        "Son 10 işleminiz:\n" + list,
+                        "Your last 10 transactions:\n" + list);
             }
 
-            boolean success = bankingService.transfer(userIban, targetIban, amount);
-            return success
-                    ? trOrEn(lang,
-                    "Transfer başarılı: " + formatMoney(amount) + " TL, " + targetIban + " IBAN'ına gönderildi.",
-                    "Transfer successful: " + formatMoney(amount) + " TL sent to " + targetIban + ".")
-                    : trOrEn(lang,
-                    "Transfer başarısız. IBAN'ı kontrol edin veya daha sonra tekrar deneyin.",
-                    "Transfer failed. Please check the IBAN or try again later.");
+            default:
+                return null;
         }
-
-        return aiClientService.askModel(userMessage);
     }
 
-    private boolean isValidTrIban(String iban) {
-        return iban != null && iban.matches("^TR\\d{24}$");
-    }
+    private String transfer(String userIban, Route route, Lang lang) {
+        String targetIban = route.iban();
+        Money amount = route.amount();
 
-    private boolean isUserAuthenticated(String userIban) {
-        return userIban != null && !userIban.isBlank();
-    }
+        if (amount == null || !amount.isPositive()) {
+            return trOrEn(lang,
+                    "Gönderilecek tutarı yazın. Örn: '100 TL gönder'.",
+                    "Please specify the amount. Example: 'Send 100 TL'.");
+        }
 
-    private Lang detectLanguage(String message) {
-        if (message == null || message.isBlank()) return Lang.TR;
-        if (message.matches(".*[şŞçÇıİğĞöÖüÜ].*")) return Lang.TR;
+        if (targetIban == null) {
+            return trOrEn(lang,
+                    "Alıcı IBAN'ı yazın. Örn: 'TR... 100 TL gönder'.",
+                    "Please provide the recipient IBAN. Example: 'TR... send 100 TL'.");
+        }
 
-        String m = normalize(message);
+        boolean success;
+        try {
+            success = bankingService.transfer(userIban, targetIban, amount);
+        } catch (InvalidIbanException e) {
+            return trOrEn(lang,
+                    "IBAN formatı hatalı. TR ile başlayan 26 karakterlik IBAN girin.",
+                    "Invalid IBAN format. Provide a Turkish IBAN starting with TR (26 chars).");
+        } catch (InsufficientBalanceException e) {
+            return trOrEn(lang,
+                    "Bu transfer için bakiyeniz yetersiz.",
+                    "Your balance is insufficient for this transfer.");
+        }
 
-        for (String h : TR_HINTS) if (m.contains(h)) return Lang.TR;
-        for (String h : EN_HINTS) if (m.contains(h)) return Lang.EN;
+        String formatted = MoneyFormat.of(lang).format(amount);
+        return success
+                ? trOrEn(lang,
+                "Transfer başarılı: " + formatted + " TL, " + targetIban + " IBAN'ına gönderildi.",
+                "Transfer successful: " + formatted + " TL sent to " + targetIban + ".")
+                : trOrEn(lang,
+                "Transfer başarısız. IBAN'ı kontrol edin veya daha sonra tekrar deneyin.",
+                "Transfer failed. Please check the IBAN or try again later.");
+    }
 
-        return Lang.TR;
+    private boolean isUserAuthenticated(String userIban) {
+        return userIban != null && !userIban.isBlank();
     }
 
     private String trOrEn(Lang lang, String tr, String en) {
         return (lang == Lang.TR) ? tr : en;
     }
 
-    private String normalize(String s) {
-        return s == null ? "" : s.toLowerCase(Locale.ROOT).trim();
-    }
-
-    private boolean containsAny(String msg, String... keys) {
-        for (String k : keys) if (msg.contains(k)) return true;
-        return false;
-    }
-
-    private String extractIban(String raw) {
-        if (raw == null) return null;
-        String compact = raw.replace(" ", "");
-        Matcher m = TR_IBAN_ANYWHERE.matcher(compact);
-        if (m.find()) return m.group().toUpperCase(Locale.ROOT);
-        return null;
-    }
-
-    private Double extractAmount(String raw) {
-        if (raw == null) return null;
-        Matcher m = AMOUNT_ANYWHERE.matcher(raw);
-        if (!m.find()) return null;
-        String val = m.group(1).replace(",", ".");
-        try { return Double.parseDouble(val); } catch (Exception e) { return null; }
-    }
-
-    private String formatMoney(Double v) {
-        if (v == null) return "0";
-        if (Math.abs(v - Math.round(v)) < 1e-9) return String.valueOf(Math.round(v));
-        return String.format(Locale.ROOT, "%.2f", v);
-    }
-
-    private String formatTransactions(List<Transaction> tx) {
+    private String formatTransactions(List<TransactionDTO> tx, MoneyFormat moneyFormat) {
         StringBuilder sb = new StringBuilder();
         int i = 1;
-        for (Transaction t : tx) {
-            sb.append(i++).append(") ").append(String.valueOf(t)).append("\n");
+        for (TransactionDTO t : tx) {
+            sb.append(i++).append(") ");
+            if (t.getCreatedAt() == null) sb.append('-');
+            else TX_TIME.formatTo(t.getCreatedAt(), sb);
+            sb.append("  ").append(t.getTransactionType()).append("  ");
+            moneyFormat.appendTo(sb, t.getAmount()).append(" TL\n");
         }
         return sb.toString().trim();
     }
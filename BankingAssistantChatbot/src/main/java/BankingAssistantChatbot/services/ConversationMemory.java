@@ -0,0 +1,121 @@
+package BankingAssistantChatbot.services;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Earlier model turns per STOMP session, sent along with the next question so follow-ups keep their
+// context. Each session keeps only its newest turns that fit the token budget: the prompt stops
+// growing after a few turns, however long the chat gets. Sessions are dropped on disconnect or
+// after being idle for idle-timeout.
+// A conversation is opened by history(), i.e. when a question is about to go to the model; record()
+// only adds to an open one. A reply that finishes after its client disconnected therefore can't
+// bring back the conversation onDisconnect just removed.
+@Component
+public class ConversationMemory {
+
+    public record Turn(String user, String assistant, int tokens) { }
+
+    private static final long PURGE_INTERVAL_MILLIS = 60_000;
+
+    private final int maxTokens;
+    private final long idleTimeoutMillis;
+    private final int maxSessions;
+
+    private final ConcurrentHashMap<String, Conversation> sessions = new ConcurrentHashMap<>();
+    private volatile long lastPurge;
+
+    public ConversationMemory(@Value("${ai.memory.max-tokens:512}") int maxTokens,
+                              @Value("${ai.memory.idle-timeout:15m}") Duration idleTimeout,
+                              @Value("${ai.memory.max-sessions:10000}") int maxSessions,
+                              MeterRegistry meterRegistry) {
+        this.maxTokens = maxTokens;
+        this.idleTimeoutMillis = idleTimeout.toMillis();
+        this.maxSessions = maxSessions;
+        Gauge.builder("ai.memory.sessions", sessions, ConcurrentHashMap::size).register(meterRegistry);
+    }
+
+    // Oldest first; empty for a new or expired session (or a null id: no conversation)
+    public List<Turn> history(String sessionId) {
+        if (sessionId == null || maxTokens <= 0) return List.of();
+
+        long now = System.currentTimeMillis();
+        purgeIdle(now);
+        Conversation conversation = sessions.get(sessionId);
+        if (conversation == null) {
+            // full even after the purge: without memory the chat still works, one question at a time
+            if (sessions.size() >= maxSessions) return List.of();
+            sessions.computeIfAbsent(sessionId, id -> new Conversation());
+            return List.of();
+        }
+
+        synchronized (conversation) {
+            if (now - conversation.lastUsed > idleTimeoutMillis) {
+                conversation.turns.clear();
+                conversation.tokens = 0;
+            }
+            conversation.lastUsed = now;
+            return List.copyOf(conversation.turns);
+        }
+    }
+
+    public void record(String sessionId, String user, String assistant) {
+        if (sessionId == null || maxTokens <= 0) return;
+
+        int tokens = estimateTokens(user) + estimateTokens(assistant);
+        if (tokens > maxTokens) return; // a single turn that doesn't fit is not worth keeping
+
+        Conversation conversation = sessions.get(sessionId);
+        if (conversation == null) return; // disconnected (or no room) meanwhile: nothing to remember for
+
+        synchronized (conversation) {
+            conversation.turns.addLast(new Turn(user, assistant, tokens));
+            conversation.tokens += tokens;
+            while (conversation.tokens > maxTokens) {
+                conversation.tokens -= conversation.turns.removeFirst().tokens();
+            }
+            conversation.lastUsed = System.currentTimeMillis();
+        }
+    }
+
+    public void forget(String sessionId) {
+        sessions.remove(sessionId);
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        forget(event.getSessionId());
+    }
+
+    // ~4 characters per token for TR/EN text, plus the chat template's per-message overhead
+    static int estimateTokens(String text) {
+        return (text == null ? 0 : (text.length() + 3) / 4) + 4;
+    }
+
+    // Drops idle sessions (clients that went away without a disconnect event reaching this node),
+    // checked at most every PURGE_INTERVAL_MILLIS, or at most once a second while the map is full
+    private void purgeIdle(long now) {
+        long interval = sessions.size() < maxSessions ? Math.min(PURGE_INTERVAL_MILLIS, idleTimeoutMillis) : 1000;
+        if (now - lastPurge <= interval) return;
+        lastPurge = now;
+        sessions.values().removeIf(c -> now - c.lastUsed > idleTimeoutMillis);
+    }
+
+    private static final class Conversation {
+        final ArrayDeque<Turn> turns = new ArrayDeque<>();
+        int tokens;
+        volatile long lastUsed = System.currentTimeMillis();
+    }
+}
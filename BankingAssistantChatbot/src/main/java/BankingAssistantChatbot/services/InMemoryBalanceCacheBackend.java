@@ -0,0 +1,55 @@
+package BankingAssistantChatbot.services;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+public class InMemoryBalanceCacheBackend implements BalanceCacheBackend {
+
+    private final int maxEntries;
+    private final ConcurrentHashMap<String, CachedBalance> entries = new ConcurrentHashMap<>();
+
+    private volatile long lastPurge;
+
+    public InMemoryBalanceCacheBackend(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    public CachedBalance get(String iban) {
+        return entries.get(iban);
+    }
+
+    @Override
+    public void putIfNewer(String iban, CachedBalance value) {
+        if (!hasRoom() && !entries.containsKey(iban)) return;
+        entries.merge(iban, value, (cached, offered) -> offered.version() > cached.version() ? offered : cached);
+    }
+
+    @Override
+    public void remove(String iban, CachedBalance expected) {
+        entries.remove(iban, expected);
+    }
+
+    @Override
+    public int clear() {
+        int n = entries.size();
+        entries.clear();
+        return n;
+    }
+
+    @Override
+    public int size() {
+        return entries.size();
+    }
+
+    // When full, drop expired entries (at most once a second); if it is still full, new IBANs
+    // simply aren't cached, which only costs a database read
+    private boolean hasRoom() {
+        if (entries.size() < maxEntries) return true;
+        long now = System.currentTimeMillis();
+        if (now - lastPurge > 1000) {
+            lastPurge = now;
+            entries.values().removeIf(e -> e.expiresAt() <= now);
+        }
+        return entries.size() < maxEntries;
+    }
+}
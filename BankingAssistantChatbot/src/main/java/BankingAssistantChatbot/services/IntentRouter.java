@@ -0,0 +1,279 @@
+package BankingAssistantChatbot.services;
+
+import BankingAssistantChatbot.model.Money;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+// Classifies a chat message in one pass over its characters: every trigger phrase of every rule
+// plus the language hints are compiled into a single Aho–Corasick DFA, so routing cost does not
+// grow with the number of phrases and allocates nothing unless a slot (IBAN/amount) is extracted.
+@Component
+public class IntentRouter {
+
+    public enum Lang { TR, EN }
+
+    public enum Intent { IBAN_FORMAT, TRANSFER_HELP, BALANCE, LAST_TRANSACTIONS, TRANSFER, FALLBACK }
+
+    // Rules are checked in table order: the first rule with a matching phrase wins
+    public record Rule(Intent intent, List<String> phrases) { }
+
+    public record Route(Intent intent, Lang lang, String iban, Money amount) { }
+
+    public static final List<Rule> DEFAULT_RULES = List.of(
+            new Rule(Intent.IBAN_FORMAT, List.of("iban format", "iban nasıl", "iban nasil", "iban formatı", "iban formati")),
+            new Rule(Intent.TRANSFER_HELP, List.of("transfer nasıl yapılır", "transfer nasil yapilir", "how to transfer", "how do i transfer")),
+            new Rule(Intent.BALANCE, List.of("bakiye", "bakiyem", "balance")),
+            new Rule(Intent.LAST_TRANSACTIONS, List.of("son 10 işlem", "son 10 islem", "last 10 transactions")),
+            new Rule(Intent.TRANSFER, List.of("transfer", "gönder", "gonder", "send"))
+    );
+
+    private static final Set<String> TR_HINTS = Set.of(
+            "bakiye","bakiyem","gönder","gonder","havale","eft","işlem","islem","son","yardım","yardim","nasıl","nasil"
+    );
+    private static final Set<String> EN_HINTS = Set.of(
+            "balance","send","transfer","how","last","transactions","help","format"
+    );
+
+    private static final int IBAN_DIGITS = 24;
+
+    private final Intent[] intents;
+    private final long intentMask;
+    private final long trHintBit;
+    private final long enHintBit;
+    private final Automaton automaton;
+
+    public IntentRouter() {
+        this(DEFAULT_RULES);
+    }
+
+    public IntentRouter(List<Rule> rules) {
+        if (rules.size() > Long.SIZE - 2) {
+            throw new IllegalArgumentException("Too many intent rules: " + rules.size());
+        }
+
+        List<String> phrases = new ArrayList<>();
+        List<Integer> ids = new ArrayList<>();
+
+        this.intents = new Intent[rules.size()];
+        for (int i = 0; i < rules.size(); i++) {
+            intents[i] = rules.get(i).intent();
+            for (String p : rules.get(i).phrases()) { phrases.add(p); ids.add(i); }
+        }
+
+        int trId = rules.size();
+        int enId = rules.size() + 1;
+        for (String h : TR_HINTS) { phrases.add(h); ids.add(trId); }
+        for (String h : EN_HINTS) { phrases.add(h); ids.add(enId); }
+
+        this.intentMask = (1L << rules.size()) - 1;
+        this.trHintBit = 1L << trId;
+        this.enHintBit = 1L << enId;
+        this.automaton = new Automaton(phrases, ids);
+    }
+
+    public Route route(String message) {
+        if (message == null || message.isBlank()) {
+            return new Route(Intent.FALLBACK, Lang.TR, null, null);
+        }
+
+        long matched = 0;
+        boolean turkishChar = false;
+        int state = 0;
+
+        for (int i = 0, n = message.length(); i < n; i++) {
+            char c = message.charAt(i);
+            if (!turkishChar && isTurkishChar(c)) turkishChar = true;
+            state = automaton.step(state, Character.toLowerCase(c));
+            matched |= automaton.out[state];
+        }
+
+        Lang lang;
+        if (turkishChar || (matched & trHintBit) != 0) lang = Lang.TR;
+        else if ((matched & enHintBit) != 0) lang = Lang.EN;
+        else lang = Lang.TR;
+
+        long hits = matched & intentMask;
+        Intent intent = hits == 0 ? Intent.FALLBACK : intents[Long.numberOfTrailingZeros(hits)];
+
+        if (intent != Intent.TRANSFER) {
+            return new Route(intent, lang, null, null);
+        }
+
+        // slots are only needed (and only scanned for) on transfers
+        int[] ibanSpan = new int[2];
+        String iban = extractIban(message, ibanSpan);
+        Money amount = iban == null
+                ? extractAmount(message, -1, -1)
+                : extractAmount(message, ibanSpan[0], ibanSpan[1]);
+        return new Route(intent, lang, iban, amount);
+    }
+
+    public static boolean isValidTrIban(String iban) {
+        if (iban == null || iban.length() != IBAN_DIGITS + 2) return false;
+        if (iban.charAt(0) != 'T' || iban.charAt(1) != 'R') return false;
+        for (int i = 2; i < iban.length(); i++) {
+            if (!isAsciiDigit(iban.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    // "TR" + 24 digits; spaces between digit groups are allowed ("TR12 0006 2000 ...")
+    static String extractIban(String raw, int[] span) {
+        for (int i = 0, n = raw.length(); i + 1 < n; i++) {
+            char t = raw.charAt(i);
+            if ((t != 'T' && t != 't') || (raw.charAt(i + 1) != 'R' && raw.charAt(i + 1) != 'r')) continue;
+            if (i > 0 && Character.isLetterOrDigit(raw.charAt(i - 1))) continue;
+
+            char[] iban = new char[IBAN_DIGITS + 2];
+            iban[0] = 'T';
+            iban[1] = 'R';
+            int count = 0;
+            int j = i + 2;
+            while (j < n && count < IBAN_DIGITS) {
+                char c = raw.charAt(j);
+                if (isAsciiDigit(c)) iban[2 + count++] = c;
+                else if (c != ' ') break;
+                j++;
+            }
+
+            if (count == IBAN_DIGITS && (j == n || !Character.isLetterOrDigit(raw.charAt(j)))) {
+                span[0] = i;
+                span[1] = j;
+                return new String(iban);
+            }
+        }
+        return null;
+    }
+
+    // First standalone number ("100", "250,50", "99.9") outside the IBAN span.
+    // More than two decimals ("1.000") is not an amount: better to ask than to guess.
+    static Money extractAmount(String raw, int skipFrom, int skipTo) {
+        int n = raw.length();
+        int i = 0;
+        while (i < n) {
+            if (i >= skipFrom && i < skipTo) { i = skipTo; continue; }
+
+            if (!isAsciiDigit(raw.charAt(i)) || (i > 0 && isAsciiDigit(raw.charAt(i - 1)))) { i++; continue; }
+
+            int intEnd = i;
+            while (intEnd < n && isAsciiDigit(raw.charAt(intEnd))) intEnd++;
+
+            int end = intEnd;
+            if (intEnd + 1 < n && (raw.charAt(intEnd) == '.' || raw.charAt(intEnd) == ',') && isAsciiDigit(raw.charAt(intEnd + 1))) {
+                end = intEnd + 1;
+                while (end < n && isAsciiDigit(raw.charAt(end))) end++;
+            }
+
+            if (!isWordChar(raw, end)) return Money.parse(raw, i, end);
+            if (end != intEnd && !isWordChar(raw, intEnd)) return Money.parse(raw, i, intEnd);
+
+            i = intEnd;
+        }
+        return null;
+    }
+
+    private static boolean isWordChar(String s, int i) {
+        return i < s.length() && (Character.isLetterOrDigit(s.charAt(i)) || s.charAt(i) == '_');
+    }
+
+    private static boolean isAsciiDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isTurkishChar(char c) {
+        switch (c) {
+            case 'ş': case 'Ş': case 'ç': case 'Ç': case 'ı': case 'İ':
+            case 'ğ': case 'Ğ': case 'ö': case 'Ö': case 'ü': case 'Ü':
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    // Dense DFA built from the Aho–Corasick trie: failure links are folded into the
+    // transition table, so matching is one array lookup per character.
+    static final class Automaton {
+
+        private final int[] symbolOf;  // char -> column; chars that occur in no phrase map to column 0
+        private final int[][] next;    // state x column -> state
+        final long[] out;              // state -> bitmask of rule ids whose phrase ends here
+
+        Automaton(List<String> phrases, List<Integer> ids) {
+            char max = 0;
+            for (String p : phrases) for (char c : p.toCharArray()) max = (char) Math.max(max, Character.toLowerCase(c));
+
+            symbolOf = new int[max + 1];
+            int columns = 1;
+            for (String p : phrases) {
+                for (char c : p.toCharArray()) {
+                    char lc = Character.toLowerCase(c);
+                    if (symbolOf[lc] == 0) symbolOf[lc] = columns++;
+                }
+            }
+
+            List<int[]> go = new ArrayList<>();
+            List<Long> outputs = new ArrayList<>();
+            go.add(newRow(columns));
+            outputs.add(0L);
+
+            for (int k = 0; k < phrases.size(); k++) {
+                int s = 0;
+                for (char c : phrases.get(k).toCharArray()) {
+                    int a = symbolOf[Character.toLowerCase(c)];
+                    if (go.get(s)[a] < 0) {
+                        go.get(s)[a] = go.size();
+                        go.add(newRow(columns));
+                        outputs.add(0L);
+                    }
+                    s = go.get(s)[a];
+                }
+                outputs.set(s, outputs.get(s) | (1L << ids.get(k)));
+            }
+
+            int states = go.size();
+            int[] fail = new int[states];
+            next = go.toArray(new int[0][]);
+            out = new long[states];
+            for (int s = 0; s < states; s++) out[s] = outputs.get(s);
+
+            ArrayDeque<Integer> queue = new ArrayDeque<>();
+            for (int a = 0; a < columns; a++) {
+                if (next[0][a] < 0) {
+                    next[0][a] = 0;
+                } else {
+                    fail[next[0][a]] = 0;
+                    queue.add(next[0][a]);
+                }
+            }
+
+            while (!queue.isEmpty()) {
+                int s = queue.poll();
+                out[s] |= out[fail[s]];
+                for (int a = 0; a < columns; a++) {
+                    int t = next[s][a];
+                    if (t < 0) {
+                        next[s][a] = next[fail[s]][a];
+                    } else {
+                        fail[t] = next[fail[s]][a];
+                        queue.add(t);
+                    }
+                }
+            }
+        }
+
+        int step(int state, char c) {
+            return next[state][c < symbolOf.length ? symbolOf[c] : 0];
+        }
+
+        private static int[] newRow(int columns) {
+            int[] row = new int[columns];
+            Arrays.fill(row, -1);
+            return row;
+        }
+    }
+}
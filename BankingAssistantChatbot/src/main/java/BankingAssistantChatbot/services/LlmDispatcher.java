@@ -0,0 +1,185 @@
+package BankingAssistantChatbot.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+// Admission for model calls: at most max-concurrent run at once (Ollama's parallel slots; more
+// only queue up inside Ollama, where nothing is prioritized). The rest wait here in priority order,
+// oldest first within a priority, in a queue of at most queue-capacity. A call that would wait
+// longer than queue-deadline is turned away instead, so a saturated model answers "busy" quickly
+// rather than slowly for everyone.
+// Calls run on the caller's thread (a chat executor thread), so streaming works unchanged.
+@Component
+public class LlmDispatcher {
+
+    //   HIGH   - logged-in session in the middle of a conversation
+    //   NORMAL - logged-in session, first question
+    //   LOW    - no session (REST /api/chat)
+    public enum Priority { HIGH, NORMAL, LOW }
+
+    private final int maxConcurrent;
+    private final int queueCapacity;
+    private final long deadlineNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final PriorityQueue<Waiter> queue = new PriorityQueue<>(
+            Comparator.comparing((Waiter w) -> w.priority).thenComparingLong(w -> w.seq));
+    private long seq;
+    private int running;
+    private long avgCallNanos; // moving average of recent calls, 0 until the first one finished
+
+    private final Map<Priority, Timer> queueTime = new EnumMap<>(Priority.class);
+    private final Counter rejectedFull;
+    private final Counter rejectedDeadline;
+
+    public LlmDispatcher(@Value("${ai.dispatch.max-concurrent:2}") int maxConcurrent,
+                         @Value("${ai.dispatch.queue-capacity:32}") int queueCapacity,
+                         @Value("${ai.dispatch.queue-deadline:20s}") Duration queueDeadline,
+                         MeterRegistry meterRegistry) {
+        this.maxConcurrent = maxConcurrent;
+        this.queueCapacity = queueCapacity;
+        this.deadlineNanos = queueDeadline.toNanos();
+
+        for (Priority priority : Priority.values()) {
+            queueTime.put(priority, Timer.builder("ai.dispatch.queue.time")
+                    .tag("priority", priority.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        this.rejectedFull = meterRegistry.counter("ai.dispatch.rejected", "reason", "full");
+        this.rejectedDeadline = meterRegistry.counter("ai.dispatch.rejected", "reason", "deadline");
+        Gauge.builder("ai.dispatch.queue.size", this, LlmDispatcher::queued).register(meterRegistry);
+        Gauge.builder("ai.dispatch.running", this, LlmDispatcher::running).register(meterRegistry);
+    }
+
+    // rejected is answered (on the caller's thread) when the call is turned away
+    public <T> T submit(Priority priority, Supplier<T> call, Supplier<T> rejected) {
+        long queuedAt = System.nanoTime();
+        if (!acquire(priority)) {
+            return rejected.get();
+        }
+
+        long startedAt = System.nanoTime();
+        queueTime.get(priority).record(startedAt - queuedAt, TimeUnit.NANOSECONDS);
+        try {
+            return call.get();
+        } finally {
+            release(System.nanoTime() - startedAt);
+        }
+    }
+
+    public int queued() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int running() {
+        lock.lock();
+        try {
+            return running;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean acquire(Priority priority) {
+        lock.lock();
+        try {
+            if (running < maxConcurrent) { // the queue is empty then: release hands slots straight to waiters
+                running++;
+                return true;
+            }
+            if (queue.size() >= queueCapacity) {
+                rejectedFull.increment();
+                return false;
+            }
+            if (estimatedWait(priority) > deadlineNanos) {
+                rejectedDeadline.increment();
+                return false;
+            }
+
+            Waiter waiter = new Waiter(priority, seq++, lock.newCondition());
+            queue.add(waiter);
+            long remaining = deadlineNanos;
+            try {
+                while (!waiter.granted) {
+                    if (remaining <= 0) {
+                        queue.remove(waiter);
+                        rejectedDeadline.increment();
+                        return false;
+                    }
+                    remaining = waiter.signal.awaitNanos(remaining);
+                }
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (waiter.granted) {
+                    handOver(); // granted while being interrupted: pass the slot on
+                } else {
+                    queue.remove(waiter);
+                }
+                return false;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(long callNanos) {
+        lock.lock();
+        try {
+            avgCallNanos = avgCallNanos == 0 ? callNanos : avgCallNanos + (callNanos - avgCallNanos) / 8;
+            handOver();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // lock held; the finished call's slot goes to the next waiter, or back to the pool
+    private void handOver() {
+        Waiter next = queue.poll();
+        if (next == null) {
+            running--;
+            return;
+        }
+        next.granted = true;
+        next.signal.signal();
+    }
+
+    // lock held; every waiter of the same or higher priority goes first, maxConcurrent at a time
+    private long estimatedWait(Priority priority) {
+        if (avgCallNanos == 0) return 0;
+        long ahead = queue.stream().filter(w -> w.priority.compareTo(priority) <= 0).count();
+        return (ahead + 1) * avgCallNanos / maxConcurrent;
+    }
+
+    private static final class Waiter {
+        final Priority priority;
+        final long seq;
+        final Condition signal;
+        boolean granted;
+
+        Waiter(Priority priority, long seq, Condition signal) {
+            this.priority = priority;
+            this.seq = seq;
+            this.signal = signal;
+        }
+    }
+}
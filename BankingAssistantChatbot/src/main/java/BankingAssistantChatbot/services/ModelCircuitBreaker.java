@@ -0,0 +1,109 @@
+package BankingAssistantChatbot.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// Stops calling the model after failure-threshold failed (or over-budget) calls in a row. While open,
+// model questions get the degraded reply at once instead of each waiting out the timeouts. After
+// open-duration a few probe calls are let through (half-open): one success closes the breaker,
+// a failure opens it for another open-duration.
+@Component
+public class ModelCircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(ModelCircuitBreaker.class);
+
+    // gauge ai.breaker.state reports the ordinal: 0 closed, 1 open, 2 half-open
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openMillis;
+    private final int halfOpenProbes;
+
+    private State state = State.CLOSED;
+    private int failures; // in a row, while closed
+    private long openedAt;
+    private int probes; // let through since half-open
+
+    private final Counter rejected;
+    private final Counter opened;
+
+    public ModelCircuitBreaker(@Value("${ai.breaker.failure-threshold:5}") int failureThreshold,
+                               @Value("${ai.breaker.open-duration:30s}") Duration openDuration,
+                               @Value("${ai.breaker.half-open-probes:1}") int halfOpenProbes,
+                               MeterRegistry meterRegistry) {
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openDuration.toMillis();
+        this.halfOpenProbes = halfOpenProbes;
+
+        this.rejected = meterRegistry.counter("ai.breaker.rejected");
+        this.opened = meterRegistry.counter("ai.breaker.opened");
+        Gauge.builder("ai.breaker.state", this, b -> b.state().ordinal()).register(meterRegistry);
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    // Cheap check before a call queues for a model slot; changes no state
+    public synchronized boolean allowsCalls() {
+        if (state == State.OPEN && System.currentTimeMillis() - openedAt < openMillis) {
+            rejected.increment();
+            return false;
+        }
+        return true;
+    }
+
+    // true: call the model, then report onSuccess or onFailure
+    public synchronized boolean tryAcquire() {
+        if (state == State.CLOSED) return true;
+
+        if (state == State.OPEN) {
+            if (System.currentTimeMillis() - openedAt < openMillis) {
+                rejected.increment();
+                return false;
+            }
+            state = State.HALF_OPEN;
+            probes = 0;
+        }
+
+        if (probes < halfOpenProbes) {
+            probes++;
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            logger.info("Model is answering again, circuit closed");
+            state = State.CLOSED;
+        }
+        failures = 0;
+    }
+
+    public synchronized void onFailure() {
+        switch (state) {
+            case HALF_OPEN -> open();
+            case CLOSED -> {
+                if (++failures >= failureThreshold) open();
+            }
+            case OPEN -> { } // a call that started before the breaker opened
+        }
+    }
+
+    private void open() {
+        logger.warn("Model calls failing, circuit open for {} ms", openMillis);
+        state = State.OPEN;
+        openedAt = System.currentTimeMillis();
+        failures = 0;
+        opened.increment();
+    }
+}
@@ -0,0 +1,110 @@
+package BankingAssistantChatbot.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+// With temperature 0.0 the model answers the same prompt the same way, so FAQ-style
+// questions are served from here instead of running local inference again.
+@Component
+public class ModelResponseCache {
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final int maxEntries;
+    private final long ttlNanos;
+
+    // access-ordered LinkedHashMap = LRU; guarded by its own monitor
+    private final LinkedHashMap<String, Entry> entries;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    private record Entry(String answer, long expiresAt) { }
+
+    public ModelResponseCache(@Value("${ai.cache.max-entries:1000}") int maxEntries,
+                              @Value("${ai.cache.ttl:6h}") Duration ttl,
+                              MeterRegistry meterRegistry) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                boolean evict = size() > ModelResponseCache.this.maxEntries;
+                if (evict) evictions.increment();
+                return evict;
+            }
+        };
+
+        this.hits = meterRegistry.counter("ai.cache.requests", "result", "hit");
+        this.misses = meterRegistry.counter("ai.cache.requests", "result", "miss");
+        this.evictions = meterRegistry.counter("ai.cache.evictions");
+        Gauge.builder("ai.cache.size", this, ModelResponseCache::size).register(meterRegistry);
+    }
+
+    // "EFT nedir?" and "  eft   NEDIR " end up on the same key. numPredict is part of it: an
+    // answer generated under a lower token limit may be cut short and must not serve a higher one.
+    public static String key(String prompt, boolean turkish, boolean stepByStep, int numPredict) {
+        String folded = NON_WORD.matcher(prompt.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+        return (turkish ? "tr|" : "en|") + (stepByStep ? "steps|" : "short|") + numPredict + "|" + folded;
+    }
+
+    public String get(String key) {
+        String answer = lookup(key);
+        (answer != null ? hits : misses).increment();
+        return answer;
+    }
+
+    // Like get, but not counted: for a second look at a key whose lookup was already counted
+    public String peek(String key) {
+        return lookup(key);
+    }
+
+    private String lookup(String key) {
+        synchronized (entries) {
+            Entry e = entries.get(key);
+            if (e != null && e.expiresAt() - System.nanoTime() > 0) {
+                return e.answer();
+            }
+            if (e != null) entries.remove(key);
+            return null;
+        }
+    }
+
+    public void put(String key, String answer) {
+        synchronized (entries) {
+            entries.put(key, new Entry(answer, System.nanoTime() + ttlNanos));
+        }
+    }
+
+    public int invalidateAll() {
+        synchronized (entries) {
+            int n = entries.size();
+            entries.clear();
+            return n;
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public double hitCount() {
+        return hits.count();
+    }
+
+    public double missCount() {
+        return misses.count();
+    }
+}
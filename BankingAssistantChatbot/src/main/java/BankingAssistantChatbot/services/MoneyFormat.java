@@ -0,0 +1,61 @@
+package BankingAssistantChatbot.services;
+
+import BankingAssistantChatbot.model.Money;
+import BankingAssistantChatbot.services.IntentRouter.Lang;
+
+// Reply formatting for amounts: "1.234,50" in Turkish, "1,234.50" in English, whole amounts
+// without decimals ("100"). One shared instance per language writes digits straight into a
+// StringBuilder instead of going through String.format/DecimalFormat on every reply.
+public enum MoneyFormat {
+
+    TR('.', ','),
+    EN(',', '.');
+
+    private final char groupSeparator;
+    private final char decimalSeparator;
+
+    MoneyFormat(char groupSeparator, char decimalSeparator) {
+        this.groupSeparator = groupSeparator;
+        this.decimalSeparator = decimalSeparator;
+    }
+
+    public static MoneyFormat of(Lang lang) {
+        return lang == Lang.EN ? EN : TR;
+    }
+
+    public String format(Money money) {
+        return appendTo(new StringBuilder(24), money).toString();
+    }
+
+    public StringBuilder appendTo(StringBuilder sb, Money money) {
+        if (money == null) return sb.append('0');
+
+        long minor = money.minor();
+        if (minor < 0) sb.append('-');
+        // Long.MIN_VALUE kuruş can't be negated; it is not a reachable balance
+        long abs = Math.abs(minor);
+        long units = abs / 100;
+        int cents = (int) (abs % 100);
+
+        appendGrouped(sb, units);
+        if (cents != 0) {
+            sb.append(decimalSeparator);
+            if (cents < 10) sb.append('0');
+            sb.append(cents);
+        }
+        return sb;
+    }
+
+    private void appendGrouped(StringBuilder sb, long units) {
+        if (units < 1000) {
+            sb.append(units);
+            return;
+        }
+        appendGrouped(sb, units / 1000);
+        int rest = (int) (units % 1000);
+        sb.append(groupSeparator);
+        if (rest < 100) sb.append('0');
+        if (rest < 10) sb.append('0');
+        sb.append(rest);
+    }
+}
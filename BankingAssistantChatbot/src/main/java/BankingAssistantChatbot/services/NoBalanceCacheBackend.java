@@ -0,0 +1,30 @@
+package BankingAssistantChatbot.services;
+
+// Caches nothing: every balance read goes to the database. Used when no backend is shared by all nodes.
+public class NoBalanceCacheBackend implements BalanceCacheBackend {
+
+    @Override
+    public CachedBalance get(String iban) {
+        return null;
+    }
+
+    @Override
+    public void putIfNewer(String iban, CachedBalance value) {
+        // not stored
+    }
+
+    @Override
+    public void remove(String iban, CachedBalance expected) {
+        // nothing to remove
+    }
+
+    @Override
+    public int clear() {
+        return 0;
+    }
+
+    @Override
+    public int size() {
+        return 0;
+    }
+}
@@ -0,0 +1,52 @@
+package BankingAssistantChatbot.services;
+
+import java.util.Arrays;
+
+// num_predict for one kind of reply, derived from how many tokens such replies actually took:
+// p95 of the last WINDOW replies plus 25% headroom, between FLOOR and the configured ceiling.
+// Replies cut off by the sentence budget count with the tokens read up to the cut. A reply that
+// hits the limit itself is counted at the limit, so the headroom lets the limit grow back.
+final class NumPredictTuner {
+
+    static final int WINDOW = 200;
+    static final int MIN_SAMPLES = 20;
+    static final int FLOOR = 16;
+
+    private final int ceiling;
+    private final boolean adaptive;
+
+    // guarded by this
+    private final int[] window = new int[WINDOW];
+    private int samples;
+    private int next;
+
+    private volatile int current;
+
+    NumPredictTuner(int ceiling, boolean adaptive) {
+        this.ceiling = ceiling;
+        this.adaptive = adaptive;
+        this.current = ceiling;
+    }
+
+    int current() {
+        return current;
+    }
+
+    void observe(int tokens) {
+        if (!adaptive) return;
+
+        int[] sorted;
+        synchronized (this) {
+            window[next] = tokens;
+            next = (next + 1) % WINDOW;
+            if (samples < WINDOW) samples++;
+            if (samples < MIN_SAMPLES) return;
+            sorted = Arrays.copyOf(window, samples);
+        }
+
+        // once per model call, which takes seconds: sorting 200 ints is noise
+        Arrays.sort(sorted);
+        int p95 = sorted[(int) Math.ceil(sorted.length * 0.95) - 1];
+        current = Math.max(FLOOR, Math.min(ceiling, p95 + (p95 + 3) / 4));
+    }
+}
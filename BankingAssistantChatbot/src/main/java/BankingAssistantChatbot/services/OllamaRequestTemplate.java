@@ -0,0 +1,97 @@
+package BankingAssistantChatbot.services;
+
+import BankingAssistantChatbot.services.ConversationMemory.Turn;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+// Streaming /api/chat request bodies with everything but the conversation and num_predict serialized
+// once: the model, keep_alive and system prompt go in a fixed prefix, the options in one of two fixed
+// suffixes (short/step-by-step). A call only JSON-escapes the earlier turns and the user message.
+final class OllamaRequestTemplate {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Pattern SECONDS = Pattern.compile("-?\\d+");
+
+    private static final byte[] USER = bytes(",{\"role\":\"user\",\"content\":");
+    private static final byte[] ASSISTANT = bytes("},{\"role\":\"assistant\",\"content\":");
+    private static final byte[] CLOSE_MESSAGE = bytes("}");
+    private static final byte[] END = bytes("}}");
+
+    private final byte[] prefix;
+    private final byte[] shortSuffix;
+    private final byte[] stepsSuffix;
+    private final byte[] loadBody;
+
+    // keepAlive: Ollama duration ("30m", "1h") or seconds ("-1" keeps the model loaded for good)
+    OllamaRequestTemplate(String model, String systemPrompt, String keepAlive) {
+        String keepAliveJson = SECONDS.matcher(keepAlive).matches() ? keepAlive : json(keepAlive);
+        String head = "{\"model\":" + json(model) + ",\"keep_alive\":" + keepAliveJson;
+
+        this.prefix = bytes(head + ",\"messages\":[{\"role\":\"system\",\"content\":" + json(systemPrompt) + "}");
+        this.shortSuffix = suffix(false);
+        this.stepsSuffix = suffix(true);
+        // no messages: Ollama only loads the model (and resets its keep_alive timer)
+        this.loadBody = bytes(head + ",\"messages\":[]}");
+    }
+
+    byte[] render(String userMessage, boolean wantsStepByStep, int numPredict) {
+        return render(List.of(), userMessage, wantsStepByStep, numPredict);
+    }
+
+    byte[] render(List<Turn> history, String userMessage, boolean wantsStepByStep, int numPredict) {
+        byte[] message = bytes(json(userMessage));
+        byte[] suffix = wantsStepByStep ? stepsSuffix : shortSuffix;
+        byte[] limit = bytes(Integer.toString(numPredict));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(prefix.length + message.length + suffix.length + 64);
+        out.writeBytes(prefix);
+        for (Turn turn : history) {
+            out.writeBytes(USER);
+            out.writeBytes(bytes(json(turn.user())));
+            out.writeBytes(ASSISTANT);
+            out.writeBytes(bytes(json(turn.assistant())));
+            out.writeBytes(CLOSE_MESSAGE);
+        }
+        out.writeBytes(USER);
+        out.writeBytes(message);
+        out.writeBytes(suffix);
+        out.writeBytes(limit);
+        out.writeBytes(END);
+        return out.toByteArray();
+    }
+
+    byte[] loadModelBody() {
+        return loadBody;
+    }
+
+    // ends with "num_predict": so the per-call limit and END complete the body
+    private static byte[] suffix(boolean wantsStepByStep) {
+        Map<String, Object> options = new LinkedHashMap<>();
+        options.put("temperature", 0.0);
+        options.put("top_p", 0.9);
+        options.put("stop", wantsStepByStep
+                ? List.of("```") // still block code fences
+                : List.of("```", "\n\n", "User:", "Kullanıcı:", "System:"));
+        String head = json(options);
+        return bytes("}],\"stream\":true,\"options\":" + head.substring(0, head.length() - 1) + ",\"num_predict\":");
+    }
+
+    private static String json(Object value) {
+        try {
+            return MAPPER.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,36 @@
+package BankingAssistantChatbot.services;
+
+// Counts sentences while a reply streams in, splitting the way keepMaxSentences does (whitespace
+// after . ! or ?), so generation can be cut off as soon as the last allowed sentence is complete
+// instead of generating tokens that would be thrown away. Not thread-safe: one per model call.
+final class SentenceBudget {
+
+    private final int maxSentences; // <= 0: unlimited
+    private int boundaries;
+    private boolean afterTerminator;
+    private boolean exhausted;
+
+    SentenceBudget(int maxSentences) {
+        this.maxSentences = maxSentences;
+    }
+
+    // How many leading chars of delta are still within the budget. Once exhausted() is true
+    // the rest of the reply is not needed.
+    int accept(CharSequence delta) {
+        if (maxSentences <= 0 || exhausted) return exhausted ? 0 : delta.length();
+
+        for (int i = 0, n = delta.length(); i < n; i++) {
+            char c = delta.charAt(i);
+            if (afterTerminator && Character.isWhitespace(c) && ++boundaries == maxSentences) {
+                exhausted = true;
+                return i;
+            }
+            afterTerminator = c == '.' || c == '!' || c == '?';
+        }
+        return delta.length();
+    }
+
+    boolean exhausted() {
+        return exhausted;
+    }
+}
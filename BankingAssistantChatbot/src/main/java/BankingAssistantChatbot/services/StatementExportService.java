@@ -0,0 +1,110 @@
+package BankingAssistantChatbot.services;
+
+import BankingAssistantChatbot.model.Transaction;
+import BankingAssistantChatbot.repository.TransactionRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+// Writes an account's ledger straight from a database cursor to the response, one row at a time.
+// Each row is detached once written, so heap use does not depend on how many rows the range has.
+@Service
+public class StatementExportService {
+
+    public enum Format { CSV, NDJSON }
+
+    // open-ended bounds when the caller gives no date range
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    private final TransactionRepository transactionRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public StatementExportService(TransactionRepository transactionRepository) {
+        this.transactionRepository = transactionRepository;
+    }
+
+    // from is inclusive, to is exclusive; either may be null. Returns the number of rows written.
+    @Transactional(readOnly = true) // the cursor only lives as long as the transaction
+    public long export(Long accountId, LocalDateTime from, LocalDateTime to, Format format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        if (format == Format.CSV) {
+            writer.write("id,created_at,transaction_type,amount\n");
+        }
+
+        long rows = 0;
+        try (Stream<Transaction> stream = transactionRepository.streamByAccountAndCreatedAtRange(
+                accountId, from != null ? from : EARLIEST, to != null ? to : LATEST)) {
+            for (Transaction t : (Iterable<Transaction>) stream::iterator) {
+                if (format == Format.CSV) writeCsv(writer, t);
+                else writeJson(writer, t);
+                entityManager.detach(t);
+                rows++;
+            }
+        }
+        writer.flush();
+        return rows;
+    }
+
+    private static void writeCsv(Writer w, Transaction t) throws IOException {
+        w.write(String.valueOf(t.getId()));
+        w.write(',');
+        w.write(String.valueOf(t.getCreatedAt()));
+        w.write(',');
+        w.write(csv(t.getTransactionType()));
+        w.write(',');
+        w.write(t.getAmount() == null ? "" : t.getAmount().toString());
+        w.write('\n');
+    }
+
+    private static void writeJson(Writer w, Transaction t) throws IOException {
+        w.write("{\"id\":");
+        w.write(String.valueOf(t.getId()));
+        w.write(",\"createdAt\":");
+        w.write(t.getCreatedAt() == null ? "null" : "\"" + t.getCreatedAt() + "\"");
+        w.write(",\"transactionType\":");
+        w.write(json(t.getTransactionType()));
+        w.write(",\"amount\":");
+        w.write(t.getAmount() == null ? "null" : t.getAmount().toString());
+        w.write("}\n");
+    }
+
+    private static String csv(String value) {
+        if (value == null) return "";
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    private static String json(String value) {
+        if (value == null) return "null";
+        StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
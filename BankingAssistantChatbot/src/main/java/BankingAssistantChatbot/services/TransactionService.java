@@ -1,30 +1,145 @@
 package BankingAssistantChatbot.services;
 
+import BankingAssistantChatbot.dto.TransactionDTO;
+import BankingAssistantChatbot.dto.TransactionPageDTO;
 import BankingAssistantChatbot.model.Account;
 import BankingAssistantChatbot.model.Transaction;
 import BankingAssistantChatbot.repository.TransactionRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 
 @Service
 public class TransactionService {
 
+    // rows per flush during bulk import; a multiple of hibernate.jdbc.batch_size
+    private static final int IMPORT_CHUNK_SIZE = 1000;
+
+    // unknown properties are ignored, as for other request bodies
+    private static final ObjectReader IMPORT_READER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .readerFor(TransactionDTO.class);
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private static final Pageable LAST_10 = PageRequest.of(0, 10);
+
     private final TransactionRepository transactionRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
-    public TransactionService(TransactionRepository transactionRepository) {
+    public TransactionService(TransactionRepository transactionRepository, TransactionTemplate transactionTemplate) {
         this.transactionRepository = transactionRepository;
+        this.transactionTemplate = transactionTemplate;
     }
 
-    public List<Transaction> getTransactions(Account account) {
-        return transactionRepository.findByAccountOrderByCreatedAtDesc(account);
+    // Keyset pagination over (createdAt, id), newest first. The cursor is the position of the last
+    // row handed out, so each page is an index range scan no matter how deep the client has paged.
+    public TransactionPageDTO getTransactionPage(Long accountId, String cursor, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        Pageable oneExtra = PageRequest.of(0, limit + 1); // the extra row tells us whether a next page exists
+
+        List<TransactionDTO> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = transactionRepository.findPage(accountId, oneExtra);
+        } else {
+            Cursor after = Cursor.decode(cursor);
+            rows = transactionRepository.findPageBefore(accountId, after.createdAt(), after.id(), oneExtra);
+        }
+
+        if (rows.size() <= limit) {
+            return new TransactionPageDTO(rows, null);
+        }
+        List<TransactionDTO> page = new ArrayList<>(rows.subList(0, limit));
+        TransactionDTO last = page.get(limit - 1);
+        return new TransactionPageDTO(page, new Cursor(last.getCreatedAt(), last.getId()).encode());
     }
 
-    public List<Transaction> getLast10Transactions(Account account) {
-        return transactionRepository.findTop10ByAccountOrderByCreatedAtDesc(account);
+    public List<TransactionDTO> getLast10Transactions(Long accountId) {
+        return transactionRepository.findRecent(accountId, LAST_10);
     }
 
     public Transaction save(Transaction transaction) {
         return transactionRepository.save(transaction);
     }
+
+    // Historical statement backfill, parsed from the body (a JSON array or NDJSON) one row at a time
+    // while it is read. Rows go out in JDBC batches and are cleared from the persistence context every
+    // IMPORT_CHUNK_SIZE rows, so memory stays flat for any size. One transaction: a malformed row, or
+    // one without amount, type or date, is answered with 400 and nothing of the import is kept.
+    // Returns the number of rows imported.
+    public int importTransactions(Long accountId, InputStream body) {
+        return transactionTemplate.execute(status -> insertAll(accountId, body));
+    }
+
+    // Opaque to clients: url-safe base64 of "<createdAt>|<id>"
+    record Cursor(LocalDateTime createdAt, Long id) {
+
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((createdAt + "|" + id).getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String token) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                int sep = raw.indexOf('|');
+                return new Cursor(LocalDateTime.parse(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+            } catch (RuntimeException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+            }
+        }
+    }
+
+    private int insertAll(Long accountId, InputStream body) {
+        int imported = 0;
+        try (MappingIterator<TransactionDTO> rows = IMPORT_READER.readValues(body)) {
+            while (rows.hasNextValue()) {
+                TransactionDTO row = rows.nextValue();
+                if (row.getAmount() == null || row.getTransactionType() == null || row.getTransactionType().isBlank()
+                        || row.getCreatedAt() == null) {
+                    throw badRow(imported + 1, "amount, transactionType and createdAt are required");
+                }
+                // a proxy from the persistence context; after clear() the next call makes a new one
+                Account ref = entityManager.getReference(Account.class, accountId);
+                entityManager.persist(new Transaction(ref, row.getAmount(), row.getTransactionType(), row.getCreatedAt()));
+                if (++imported % IMPORT_CHUNK_SIZE == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw badRow(imported + 1, e instanceof JsonProcessingException json ? json.getOriginalMessage() : e.getMessage());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return imported;
+    }
+
+    private static ResponseStatusException badRow(int row, String reason) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Import row " + row + ": " + reason);
+    }
 }
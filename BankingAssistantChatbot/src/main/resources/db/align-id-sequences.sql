@@ -0,0 +1,6 @@
+-- One-off step for databases created while accounts/transactions still used IDENTITY ids.
+-- Run once after deploying the sequence-based ids (Hibernate creates the sequences with ddl-auto=update),
+-- otherwise the new sequences start at 1 and collide with existing rows.
+-- The pooled optimizer treats each sequence value as the top of a 50-id block, hence "+ 50".
+SELECT setval('accounts_seq', COALESCE((SELECT max(id) FROM accounts), 0) + 50, false);
+SELECT setval('transactions_seq', COALESCE((SELECT max(id) FROM transactions), 0) + 50, false);
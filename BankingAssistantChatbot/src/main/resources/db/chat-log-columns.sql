@@ -0,0 +1,4 @@
+-- One-off step for databases created while chat_logs had only message/sender (IDENTITY id, varchar(255)).
+-- ddl-auto=update adds the new columns and chat_logs_seq but neither widens columns nor moves the sequence.
+ALTER TABLE chat_logs ALTER COLUMN message TYPE varchar(4000);
+SELECT setval('chat_logs_seq', COALESCE((SELECT max(id) FROM chat_logs), 0) + 50, false);
@@ -0,0 +1,5 @@
+-- One-off step for databases created while transactions.amount was a Double (double precision).
+-- ddl-auto=update does not change column types, so run this once before deploying the Money mapping.
+-- Existing amounts are rounded to the kuruş; Money rejects anything finer.
+ALTER TABLE transactions ALTER COLUMN amount TYPE numeric(19, 2) USING round(amount::numeric, 2);
+UPDATE accounts SET balance = round(balance, 2) WHERE balance <> round(balance, 2);
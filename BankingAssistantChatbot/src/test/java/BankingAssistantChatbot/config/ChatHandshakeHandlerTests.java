@@ -0,0 +1,33 @@
+package BankingAssistantChatbot.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.WebSocketExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChatHandshakeHandlerTests {
+
+	private final List<WebSocketExtension> requested = List.of(
+			new WebSocketExtension("permessage-deflate"), new WebSocketExtension("x-custom"));
+
+	private final List<WebSocketExtension> supported = List.of(
+			new WebSocketExtension("permessage-deflate"), new WebSocketExtension("x-custom"));
+
+	@Test
+	void deflateIsNegotiatedWhenEnabled() {
+		List<WebSocketExtension> accepted = new ChatHandshakeHandler(true)
+				.filterRequestedExtensions(null, requested, supported);
+
+		assertEquals(List.of("permessage-deflate", "x-custom"), accepted.stream().map(WebSocketExtension::getName).toList());
+	}
+
+	@Test
+	void deflateIsDroppedWhenDisabled() {
+		List<WebSocketExtension> accepted = new ChatHandshakeHandler(false)
+				.filterRequestedExtensions(null, requested, supported);
+
+		assertEquals(List.of("x-custom"), accepted.stream().map(WebSocketExtension::getName).toList());
+	}
+}
@@ -0,0 +1,31 @@
+package BankingAssistantChatbot.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilTests {
+
+	@Test
+	void acceptsOwnTokensWithAndWithoutCache() {
+		JwtUtil cached = new JwtUtil(100);
+		JwtUtil uncached = new JwtUtil(0);
+		String token = cached.generateToken("john.doe@example.com");
+
+		assertEquals("john.doe@example.com", cached.validateAndExtractUsername(token));
+		assertEquals("john.doe@example.com", cached.validateAndExtractUsername(token)); // from the cache
+		assertEquals("john.doe@example.com", uncached.validateAndExtractUsername(token));
+	}
+
+	@Test
+	void rejectsTamperedTokens() {
+		JwtUtil jwtUtil = new JwtUtil(100);
+		String token = jwtUtil.generateToken("john.doe@example.com");
+		assertEquals("john.doe@example.com", jwtUtil.validateAndExtractUsername(token));
+
+		String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+		assertNull(jwtUtil.validateAndExtractUsername(tampered));
+		assertNull(jwtUtil.validateAndExtractUsername("not.a.jwt"));
+		assertFalse(jwtUtil.validateToken(null));
+	}
+}
@@ -0,0 +1,92 @@
+package BankingAssistantChatbot.config;
+
+import BankingAssistantChatbot.dto.ChatUser;
+import BankingAssistantChatbot.model.Account;
+import BankingAssistantChatbot.model.AccountType;
+import BankingAssistantChatbot.model.Customer;
+import BankingAssistantChatbot.model.Money;
+import BankingAssistantChatbot.repository.AccountRepository;
+import BankingAssistantChatbot.repository.CustomerRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@Import({StompAuthChannelInterceptor.class, JwtUtil.class})
+class StompAuthChannelInterceptorTests {
+
+	private static final String EMAIL = "jane.doe@example.com";
+
+	@Autowired
+	private StompAuthChannelInterceptor interceptor;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	@Autowired
+	private AccountRepository accountRepository;
+
+	@Test
+	void connectBindsCustomerAndOwnedIbansToSession() {
+		Customer customer = customerRepository.save(Customer.builder()
+				.firstName("Jane").lastName("Doe").email(EMAIL).password("secret").build());
+		for (String iban : List.of("TR000000000000000000006001", "TR000000000000000000006002")) {
+			accountRepository.save(Account.builder()
+					.iban(iban)
+					.accountType(AccountType.CHECKING)
+					.status("ACTIVE")
+					.balance(Money.ZERO)
+					.customer(customer)
+					.build());
+		}
+
+		Map<String, Object> session = new HashMap<>();
+		Message<?> result = interceptor.preSend(connect("Bearer " + jwtUtil.generateToken(EMAIL), session), null);
+
+		ChatUser user = (ChatUser) session.get(ChatUser.SESSION_ATTRIBUTE);
+		assertEquals(customer.getId(), user.customerId());
+		assertEquals(List.of("TR000000000000000000006001", "TR000000000000000000006002"), List.copyOf(user.accounts().keySet()));
+		assertEquals("TR000000000000000000006001", user.defaultIban());
+		assertSame(user, MessageHeaderAccessor.getAccessor(result, StompHeaderAccessor.class).getUser());
+	}
+
+	@Test
+	void connectWithoutValidTokenIsRejected() {
+		assertThrows(MessageDeliveryException.class, () -> interceptor.preSend(connect(null, new HashMap<>()), null));
+		assertThrows(MessageDeliveryException.class, () -> interceptor.preSend(connect("Bearer nope", new HashMap<>()), null));
+		// STOMP is the 1.1+ name for CONNECT and must not skip the check
+		assertThrows(MessageDeliveryException.class, () -> interceptor.preSend(connect(StompCommand.STOMP, null, new HashMap<>()), null));
+	}
+
+	private static Message<byte[]> connect(String authorization, Map<String, Object> session) {
+		return connect(StompCommand.CONNECT, authorization, session);
+	}
+
+	private static Message<byte[]> connect(StompCommand command, String authorization, Map<String, Object> session) {
+		StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+		if (authorization != null) accessor.setNativeHeader("Authorization", authorization);
+		accessor.setSessionAttributes(session);
+		accessor.setLeaveMutable(true);
+		return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+	}
+}
@@ -0,0 +1,56 @@
+package BankingAssistantChatbot.controller;
+
+import BankingAssistantChatbot.config.JwtRequestFilter;
+import BankingAssistantChatbot.config.JwtUtil;
+import BankingAssistantChatbot.config.SecurityConfig;
+import BankingAssistantChatbot.services.BalanceCache;
+import BankingAssistantChatbot.services.ModelResponseCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(AdminController.class)
+@Import({SecurityConfig.class, JwtRequestFilter.class, JwtUtil.class})
+@TestPropertySource(properties = "admin.users=ops@example.com")
+class AdminControllerTests {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@MockBean
+	private ModelResponseCache modelResponseCache;
+
+	@MockBean
+	private BalanceCache balanceCache;
+
+	@Test
+	void customerCannotEmptyTheCaches() throws Exception {
+		String customer = "Bearer " + jwtUtil.generateToken("john.doe@example.com");
+
+		mvc.perform(delete("/admin/cache/model-responses").header("Authorization", customer)).andExpect(status().isForbidden());
+		mvc.perform(delete("/admin/cache/balances").header("Authorization", customer)).andExpect(status().isForbidden());
+		verifyNoInteractions(modelResponseCache, balanceCache);
+	}
+
+	@Test
+	void adminCanEmptyTheCaches() throws Exception {
+		String admin = "Bearer " + jwtUtil.generateToken("ops@example.com");
+
+		mvc.perform(delete("/admin/cache/model-responses").header("Authorization", admin)).andExpect(status().isOk());
+		mvc.perform(delete("/admin/cache/balances").header("Authorization", admin)).andExpect(status().isOk());
+		verify(modelResponseCache).invalidateAll();
+		verify(balanceCache).invalidateAll();
+	}
+}
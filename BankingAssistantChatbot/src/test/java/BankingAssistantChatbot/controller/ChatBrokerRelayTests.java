@@ -0,0 +1,34 @@
+package BankingAssistantChatbot.controller;
+
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.ServerSocket;
+
+// Same end-to-end checks as ChatWebSocketTests, but with chat.broker.mode=relay
+// against an embedded Artemis broker speaking STOMP. The context is closed after the class
+// so its relay does not keep reconnecting; the broker itself lives until the test JVM exits.
+@DirtiesContext
+class ChatBrokerRelayTests extends ChatWebSocketTests {
+
+	@DynamicPropertySource
+	static void relayProperties(DynamicPropertyRegistry registry) throws Exception {
+		int port;
+		try (ServerSocket socket = new ServerSocket(0)) {
+			port = socket.getLocalPort();
+		}
+
+		EmbeddedActiveMQ broker = new EmbeddedActiveMQ();
+		broker.setConfiguration(new ConfigurationImpl()
+				.setPersistenceEnabled(false)
+				.setSecurityEnabled(false)
+				.addAcceptorConfiguration("stomp", "tcp://localhost:" + port + "?protocols=STOMP"));
+		broker.start();
+
+		registry.add("chat.broker.mode", () -> "relay");
+		registry.add("chat.broker.relay.port", () -> port);
+	}
+}
@@ -0,0 +1,124 @@
+package BankingAssistantChatbot.controller;
+
+import BankingAssistantChatbot.config.JwtUtil;
+import BankingAssistantChatbot.dto.ChatMessageDTO;
+import BankingAssistantChatbot.model.Account;
+import BankingAssistantChatbot.model.AccountType;
+import BankingAssistantChatbot.model.Customer;
+import BankingAssistantChatbot.model.Money;
+import BankingAssistantChatbot.repository.AccountRepository;
+import BankingAssistantChatbot.repository.CustomerRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("h2")
+class ChatWebSocketTests {
+
+	// subclasses share the database, so every run gets its own customers and IBANs
+	private static final AtomicInteger RUN = new AtomicInteger(7000);
+
+	@LocalServerPort
+	protected int port;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	@Autowired
+	private AccountRepository accountRepository;
+
+	@Test
+	void repliesGoOnlyToTheAskingSession() throws Exception {
+		int run = RUN.addAndGet(2);
+		String aliceEmail = "alice" + run + "@example.com";
+		String bobEmail = "bob" + run + "@example.com";
+		account(customer(aliceEmail), "TR00000000000000000000" + run, "150.00");
+		account(customer(bobEmail), "TR00000000000000000000" + (run + 1), "999.00");
+
+		WebSocketStompClient client = stompClient();
+		client.setMessageConverter(new MappingJackson2MessageConverter());
+
+		BlockingQueue<ChatMessageDTO> aliceReplies = new LinkedBlockingQueue<>();
+		BlockingQueue<ChatMessageDTO> bobReplies = new LinkedBlockingQueue<>();
+		StompSession aliceSession = connect(client, aliceEmail, aliceReplies);
+		connect(client, bobEmail, bobReplies);
+
+		aliceSession.send("/app/chat.send", new ChatMessageDTO("", "bakiye", "USER"));
+
+		ChatMessageDTO reply = aliceReplies.poll(10, TimeUnit.SECONDS);
+		assertNotNull(reply);
+		assertEquals("Güncel bakiyeniz: 150 TL.", reply.getContent());
+		assertNull(bobReplies.poll(500, TimeUnit.MILLISECONDS));
+	}
+
+	protected WebSocketStompClient stompClient() {
+		return new WebSocketStompClient(
+				new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+	}
+
+	protected String endpointUrl() {
+		return "http://localhost:" + port + "/ws/chat";
+	}
+
+	private StompSession connect(WebSocketStompClient client, String email, BlockingQueue<ChatMessageDTO> replies) throws Exception {
+		StompHeaders connectHeaders = new StompHeaders();
+		connectHeaders.add("Authorization", "Bearer " + jwtUtil.generateToken(email));
+
+		StompSession session = client.connectAsync(endpointUrl(),
+				new WebSocketHttpHeaders(), connectHeaders, new StompSessionHandlerAdapter() { })
+				.get(10, TimeUnit.SECONDS);
+		session.subscribe("/user/queue/replies", new StompFrameHandler() {
+			@Override
+			public Type getPayloadType(StompHeaders headers) {
+				return ChatMessageDTO.class;
+			}
+
+			@Override
+			public void handleFrame(StompHeaders headers, Object payload) {
+				replies.add((ChatMessageDTO) payload);
+			}
+		});
+		Thread.sleep(200); // let the SUBSCRIBE reach the broker before anything is sent
+		return session;
+	}
+
+	private Customer customer(String email) {
+		return customerRepository.save(Customer.builder()
+				.firstName("Test").lastName("User").email(email).password("secret").build());
+	}
+
+	private void account(Customer customer, String iban, String balance) {
+		accountRepository.save(Account.builder()
+				.iban(iban)
+				.accountType(AccountType.CHECKING)
+				.status("ACTIVE")
+				.balance(Money.of(balance))
+				.customer(customer)
+				.build());
+	}
+}
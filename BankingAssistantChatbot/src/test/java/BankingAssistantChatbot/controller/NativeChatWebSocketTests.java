@@ -0,0 +1,18 @@
+package BankingAssistantChatbot.controller;
+
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+// Same end-to-end checks as ChatWebSocketTests over the plain WebSocket endpoint (no SockJS).
+class NativeChatWebSocketTests extends ChatWebSocketTests {
+
+	@Override
+	protected WebSocketStompClient stompClient() {
+		return new WebSocketStompClient(new StandardWebSocketClient());
+	}
+
+	@Override
+	protected String endpointUrl() {
+		return "ws://localhost:" + port + "/ws/chat-native";
+	}
+}
@@ -0,0 +1,256 @@
+package BankingAssistantChatbot.services;
+
+import BankingAssistantChatbot.config.OllamaClientConfig;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AiClientServiceTests {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private HttpServer ollama;
+	private final AtomicReference<JsonNode> lastRequest = new AtomicReference<>();
+	private final CountDownLatch clientGone = new CountDownLatch(1);
+	private final AtomicInteger requests = new AtomicInteger();
+	private volatile long firstTokenDelayMillis; // time the model "thinks" before answering
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final ConversationMemory memory = new ConversationMemory(512, Duration.ofMinutes(15), 100, registry);
+	private final ModelCircuitBreaker breaker = new ModelCircuitBreaker(2, Duration.ofMillis(200), 1, registry);
+
+	// fake /api/chat: optionally a pause, a few sentences, then a long tail at 50 ms per token
+	@BeforeEach
+	void startOllama() throws IOException {
+		ollama = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		ollama.createContext("/api/chat", exchange -> {
+			lastRequest.set(MAPPER.readTree(exchange.getRequestBody()));
+			requests.incrementAndGet();
+			exchange.getResponseHeaders().add("Content-Type", "application/x-ndjson");
+			exchange.sendResponseHeaders(200, 0);
+
+			List<String> tokens = new ArrayList<>(List.of("EFT", " aynı", " gün", " ulaşır", ".", " FAST", " anında", ".", " SWIFT", " 1-3", " gün", " sürer", ".", " Ayrıca"));
+			for (int i = 0; i < 100; i++) tokens.add(" uzun");
+
+			try (OutputStream out = exchange.getResponseBody()) {
+				Thread.sleep(firstTokenDelayMillis);
+				for (String token : tokens) {
+					out.write(chunk(token, false));
+					out.flush();
+					Thread.sleep(token.equals(" uzun") ? 50 : 0);
+				}
+				out.write(chunk("", true));
+			} catch (IOException e) {
+				clientGone.countDown(); // the client hung up: generation would stop here
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		ollama.start();
+	}
+
+	@AfterEach
+	void stopOllama() {
+		ollama.stop(0);
+	}
+
+	@Test
+	void shortReplyStopsGenerationAtTheSentenceBudget() throws Exception {
+		AiClientService service = service();
+		StringBuilder streamed = new StringBuilder();
+
+		long start = System.nanoTime();
+		String reply = service.streamModel("EFT ne kadar sürer?", streamed::append);
+		long millis = (System.nanoTime() - start) / 1_000_000;
+
+		assertEquals("EFT aynı gün ulaşır. FAST anında. SWIFT 1-3 gün sürer.", reply);
+		assertEquals(reply, streamed.toString());
+		assertTrue(millis < 2000, "waited for the whole generation: " + millis + " ms");
+		assertTrue(clientGone.await(5, TimeUnit.SECONDS));
+		assertEquals(80, lastRequest.get().at("/options/num_predict").asInt());
+		assertEquals("30m", lastRequest.get().get("keep_alive").asText());
+	}
+
+	@Test
+	void identicalPromptsInFlightShareOneModelCall() throws Exception {
+		AiClientService service = service();
+		firstTokenDelayMillis = 500;
+
+		int callers = 8;
+		ExecutorService pool = Executors.newFixedThreadPool(callers);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<String>> replies = new ArrayList<>();
+		for (int i = 0; i < callers; i++) {
+			replies.add(pool.submit(() -> {
+				start.await();
+				return service.askModel("EFT ne kadar sürer?");
+			}));
+		}
+		start.countDown();
+
+		for (Future<String> reply : replies) {
+			assertEquals("EFT aynı gün ulaşır. FAST anında. SWIFT 1-3 gün sürer.", reply.get(5, TimeUnit.SECONDS));
+		}
+		pool.shutdown();
+		assertEquals(1, requests.get());
+	}
+
+	@Test
+	void followersOfAFailedLeaderFailTooAndTheNextCallRetries() throws Exception {
+		AiClientService service = service();
+		CountDownLatch leaderRunning = new CountDownLatch(1);
+		CountDownLatch releaseLeader = new CountDownLatch(1);
+
+		ExecutorService pool = Executors.newFixedThreadPool(2);
+		Future<String> leader = pool.submit(() -> service.singleFlight("k", () -> {
+			leaderRunning.countDown();
+			await(releaseLeader);
+			throw new IllegalStateException("model call blew up");
+		}));
+		assertTrue(leaderRunning.await(5, TimeUnit.SECONDS));
+		Future<String> follower = pool.submit(() -> service.singleFlight("k", () -> fail("should wait for the leader")));
+
+		Thread.sleep(100); // let the follower join the running call
+		releaseLeader.countDown();
+
+		ExecutionException leaderFailure = assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+		assertInstanceOf(IllegalStateException.class, leaderFailure.getCause());
+		ExecutionException followerFailure = assertThrows(ExecutionException.class, () -> follower.get(5, TimeUnit.SECONDS));
+		assertInstanceOf(IllegalStateException.class, followerFailure.getCause().getCause()); // via the shared future
+		pool.shutdown();
+
+		// the failed call is not left behind: the next caller runs its own
+		assertEquals("retried", service.singleFlight("k", () -> "retried"));
+	}
+
+	@Test
+	void answerCachedUnderAnotherTokenLimitIsNotReused() {
+		AiClientService service = service();
+		service.askModel("EFT ne kadar sürer?");
+		assertEquals(80, lastRequest.get().at("/options/num_predict").asInt());
+
+		// short replies lower the limit once the tuner has enough samples
+		for (int i = 0; i < NumPredictTuner.MIN_SAMPLES; i++) service.askModel("Soru " + i + " nedir?");
+		int lowered = lastRequest.get().at("/options/num_predict").asInt();
+		assertTrue(lowered < 80, "num_predict was not tuned: " + lowered);
+
+		int before = requests.get();
+		lastRequest.set(null);
+		service.askModel("EFT ne kadar sürer?");
+		assertEquals(before + 1, requests.get());
+		assertTrue(lastRequest.get().at("/options/num_predict").asInt() < 80);
+	}
+
+	@Test
+	void followUpCarriesEarlierTurnsAndSkipsTheCache() {
+		AiClientService service = service();
+
+		String first = service.streamModel("session-1", "EFT ne kadar sürer?", null);
+		JsonNode firstMessages = lastRequest.get().get("messages");
+		assertEquals(2, firstMessages.size()); // system + user
+
+		lastRequest.set(null);
+		service.streamModel("session-1", "EFT ne kadar sürer?", null);
+		JsonNode messages = lastRequest.get().get("messages"); // same text, but not answered from the cache
+		assertEquals(4, messages.size());
+		assertEquals("EFT ne kadar sürer?", messages.get(1).get("content").asText());
+		assertEquals(first, messages.get(2).get("content").asText());
+		assertEquals("assistant", messages.get(2).get("role").asText());
+		assertEquals(2, memory.history("session-1").size());
+
+		// without a conversation the first reply is still cached
+		lastRequest.set(null);
+		assertEquals(first, service.askModel("EFT ne kadar sürer?"));
+		assertNull(lastRequest.get());
+	}
+
+	@Test
+	void openCircuitAnswersFromTheCacheOrDegraded() throws Exception {
+		AiClientService service = service();
+		String cached = service.askModel("EFT ne kadar sürer?");
+
+		ollama.stop(0); // nothing listens on the port any more: connections are refused
+		assertEquals("An error occurred while contacting the AI model.", service.askModel("Kart limitim neden düştü?"));
+		assertEquals("An error occurred while contacting the AI model.", service.askModel("Kart limitim neden düştü?"));
+		assertEquals(ModelCircuitBreaker.State.OPEN, breaker.state());
+
+		double misses = registry.counter("ai.cache.requests", "result", "miss").count();
+		String degraded = service.askModel("Kart limitim neden düştü?");
+		assertTrue(degraded.startsWith("Şu anda yalnızca temel işlemlerde"), degraded);
+		assertEquals(misses + 1, registry.counter("ai.cache.requests", "result", "miss").count()); // one lookup, one miss
+		// mid-conversation the cached answer to the same question still helps
+		memory.history("session-1");
+		memory.record("session-1", "Merhaba", "Merhaba! Nasıl yardımcı olabilirim?");
+		assertEquals(cached, service.streamModel("session-1", "EFT ne kadar sürer?", null));
+
+		Thread.sleep(250); // half-open: one probe, which fails again
+		assertEquals("An error occurred while contacting the AI model.", service.askModel("Kart limitim neden düştü?"));
+		assertEquals(ModelCircuitBreaker.State.OPEN, breaker.state());
+	}
+
+	@Test
+	void callOverTheLatencyBudgetIsCutAndCountsAsFailure() throws Exception {
+		AiClientService service = service(Duration.ofMillis(300));
+
+		long start = System.nanoTime();
+		String reply = service.askModel("EFT adım adım anlat"); // step-by-step: no sentence budget
+		long millis = (System.nanoTime() - start) / 1_000_000;
+
+		assertTrue(reply.startsWith("EFT aynı gün ulaşır."), reply);
+		assertTrue(millis < 2000, "waited for the whole generation: " + millis + " ms");
+		assertTrue(clientGone.await(5, TimeUnit.SECONDS));
+		assertEquals(1.0, registry.counter("ai.generation.over-budget").count());
+
+		service.askModel("EFT adım adım anlat"); // not cached: the second one also goes over budget
+		assertEquals(ModelCircuitBreaker.State.OPEN, breaker.state());
+	}
+
+	private AiClientService service() {
+		return service(Duration.ofSeconds(30));
+	}
+
+	private AiClientService service(Duration callBudget) {
+		RestTemplate restTemplate = new OllamaClientConfig().ollamaRestTemplate(new OllamaClientConfig()
+				.ollamaRequestFactory(2, Duration.ofSeconds(2), Duration.ofSeconds(10), Duration.ofSeconds(2)));
+		return new AiClientService(new ModelResponseCache(16, Duration.ofMinutes(1), registry), memory,
+				new LlmDispatcher(2, 8, Duration.ofSeconds(5), registry), breaker, restTemplate,
+				"http://localhost:" + ollama.getAddress().getPort(), "30m", false, callBudget, 3, 80, 220, true, registry);
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static byte[] chunk(String content, boolean done) throws IOException {
+		return (MAPPER.writeValueAsString(MAPPER.createObjectNode()
+				.put("done", done)
+				.set("message", MAPPER.createObjectNode().put("role", "assistant").put("content", content))) + "\n")
+				.getBytes(StandardCharsets.UTF_8);
+	}
+}
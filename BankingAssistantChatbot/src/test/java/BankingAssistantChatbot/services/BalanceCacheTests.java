@@ -0,0 +1,72 @@
+package BankingAssistantChatbot.services;
+
+import BankingAssistantChatbot.model.Account;
+import BankingAssistantChatbot.model.Money;
+import BankingAssistantChatbot.services.BalanceCache.Snapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BalanceCacheTests {
+
+	private static final String IBAN = "TR000000000000000000005001";
+
+	@Test
+	void slowReaderDoesNotOverwriteCommittedBalance() {
+		BalanceCache cache = new BalanceCache(new InMemoryBalanceCacheBackend(100), Duration.ofMinutes(1), new SimpleMeterRegistry());
+
+		// the reader loads the old balance, and a transfer commits before it gets to store it
+		Money read = cache.get(IBAN, iban -> {
+			cache.updateAfterCommit(account("60.00", 2)); // no transaction here: published immediately
+			return new Snapshot(Money.of("100.00"), 1);
+		});
+
+		assertEquals(Money.of("100.00"), read);
+		assertEquals(Money.of("60.00"), cache.get(IBAN, iban -> fail("should be a hit")));
+		assertEquals(1.0, cache.hitCount());
+		assertEquals(1.0, cache.missCount());
+	}
+
+	@Test
+	void lateCommitHookDoesNotOverwriteNewerBalance() {
+		BalanceCache cache = new BalanceCache(new InMemoryBalanceCacheBackend(100), Duration.ofMinutes(1), new SimpleMeterRegistry());
+
+		// T1 and T2 commit in that order, T1's hook runs last
+		cache.updateAfterCommit(account("40.00", 3));
+		cache.updateAfterCommit(account("70.00", 2));
+
+		assertEquals(Money.of("40.00"), cache.get(IBAN, iban -> fail("should be a hit")));
+	}
+
+	@Test
+	void newerReadReplacesOlderEntry() {
+		BalanceCache cache = new BalanceCache(new InMemoryBalanceCacheBackend(100), Duration.ZERO, new SimpleMeterRegistry());
+
+		cache.updateAfterCommit(account("10.00", 1));
+		assertEquals(Money.of("20.00"), cache.get(IBAN, iban -> new Snapshot(Money.of("20.00"), 2)));
+	}
+
+	@Test
+	void unknownIbanIsNotCached() {
+		BalanceCache cache = new BalanceCache(new InMemoryBalanceCacheBackend(100), Duration.ofMinutes(1), new SimpleMeterRegistry());
+
+		assertNull(cache.get(IBAN, iban -> null));
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	void nothingIsCachedWithoutABackend() {
+		BalanceCache cache = new BalanceCache(new NoBalanceCacheBackend(), Duration.ofMinutes(1), new SimpleMeterRegistry());
+
+		cache.updateAfterCommit(account("10.00", 1));
+		assertEquals(Money.of("20.00"), cache.get(IBAN, iban -> new Snapshot(Money.of("20.00"), 2)));
+		assertEquals(0, cache.size());
+	}
+
+	private static Account account(String balance, long version) {
+		return Account.builder().iban(IBAN).balance(Money.of(balance)).version(version).build();
+	}
+}
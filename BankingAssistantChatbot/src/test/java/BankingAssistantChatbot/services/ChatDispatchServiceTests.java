@@ -0,0 +1,141 @@
+package BankingAssistantChatbot.services;
+
+import BankingAssistantChatbot.dto.ChatMessageDTO;
+import BankingAssistantChatbot.dto.ChatUser;
+import BankingAssistantChatbot.services.ChatbotService.Reply;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ChatDispatchServiceTests {
+
+	private static final String SESSION = "session-1";
+	private static final String WAIT = "Please wait for the previous answer before sending a new message.";
+	private static final String BUSY = "The assistant is busy right now. Please try again in a moment.";
+
+	private final ChatbotService chatbotService = mock(ChatbotService.class);
+	private final ChatLogWriter chatLogWriter = mock(ChatLogWriter.class);
+	private final SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+	private final QueueingExecutor executor = new QueueingExecutor();
+	private final ChatUser user = new ChatUser("ayse@example.com", 1L, Map.of("TR000000000000000000007001", 7001L));
+
+	@Test
+	void thirdMessageInFlightIsRefused() {
+		ChatDispatchService service = service(executor);
+
+		service.dispatch(SESSION, user, question());
+		service.dispatch(SESSION, user, question());
+		service.dispatch(SESSION, user, question());
+
+		assertEquals(2, executor.tasks.size());
+		assertEquals(List.of(WAIT), replies());
+		verifyNoInteractions(chatbotService);
+	}
+
+	@Test
+	void permitComesBackAfterTheReply() {
+		when(chatbotService.answer(eq(SESSION), anyString(), eq(7001L), eq("Bakiyem ne kadar?"), any()))
+				.thenReturn(new Reply("Bakiyeniz 100,00 TL.", null, null));
+		ChatDispatchService service = service(executor);
+
+		service.dispatch(SESSION, user, question());
+		service.dispatch(SESSION, user, question());
+		executor.runNext();
+		service.dispatch(SESSION, user, question());
+
+		assertEquals(2, executor.tasks.size());
+		assertEquals(List.of("Bakiyeniz 100,00 TL."), replies());
+		verify(chatLogWriter).log(any());
+	}
+
+	@Test
+	void permitComesBackWhenTheReplyFails() {
+		when(chatbotService.answer(any(), any(), any(), any(), any())).thenThrow(new IllegalStateException("boom"));
+		ChatDispatchService service = service(executor);
+
+		service.dispatch(SESSION, user, question());
+		service.dispatch(SESSION, user, question());
+		executor.runNext();
+		service.dispatch(SESSION, user, question());
+
+		assertEquals(2, executor.tasks.size());
+		assertEquals(List.of("An error occurred. Please try again later."), replies());
+	}
+
+	@Test
+	void disconnectDropsTheSessionPermits() {
+		ChatDispatchService service = service(executor);
+
+		service.dispatch(SESSION, user, question());
+		service.dispatch(SESSION, user, question());
+		service.onDisconnect(new SessionDisconnectEvent(this, MessageBuilder.withPayload(new byte[0]).build(), SESSION, CloseStatus.NORMAL));
+		service.dispatch(SESSION, user, question()); // a new session under the same id starts with full permits
+
+		assertEquals(3, executor.tasks.size());
+		assertEquals(List.of(), replies());
+	}
+
+	@Test
+	void saturatedExecutorAnswersBusyAndReturnsThePermit() {
+		ChatDispatchService service = service(task -> {
+			throw new TaskRejectedException("queue full");
+		});
+
+		service.dispatch(SESSION, user, question());
+		service.dispatch(SESSION, user, question());
+		service.dispatch(SESSION, user, question());
+
+		assertEquals(List.of(BUSY, BUSY, BUSY), replies()); // never "please wait": no permit is kept
+		verifyNoInteractions(chatbotService, chatLogWriter);
+	}
+
+	private ChatDispatchService service(TaskExecutor chatExecutor) {
+		return new ChatDispatchService(chatbotService, chatLogWriter, messagingTemplate, chatExecutor, 2);
+	}
+
+	private static ChatMessageDTO question() {
+		return new ChatMessageDTO(null, "Bakiyem ne kadar?", "USER");
+	}
+
+	// final ("done") replies sent to the session, in order
+	private List<String> replies() {
+		ArgumentCaptor<Object> sent = ArgumentCaptor.forClass(Object.class);
+		verify(messagingTemplate, atLeast(0)).convertAndSendToUser(eq(SESSION), eq("/queue/replies"), sent.capture(), anyMap());
+		return sent.getAllValues().stream()
+				.map(ChatMessageDTO.class::cast)
+				.filter(ChatMessageDTO::isDone)
+				.map(ChatMessageDTO::getContent)
+				.toList();
+	}
+
+	// holds the tasks so a test decides when a reply finishes
+	private static class QueueingExecutor implements TaskExecutor {
+		final Deque<Runnable> tasks = new ArrayDeque<>();
+
+		@Override
+		public void execute(Runnable task) {
+			tasks.add(task);
+		}
+
+		void runNext() {
+			tasks.poll().run();
+		}
+	}
+}
@@ -0,0 +1,85 @@
+package BankingAssistantChatbot.services;
+
+import BankingAssistantChatbot.model.ChatLog;
+import BankingAssistantChatbot.repository.ChatLogRepository;
+import BankingAssistantChatbot.services.ChatLogWriter.OverflowPolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ChatLogWriterTests {
+
+	@Autowired
+	private ChatLogRepository chatLogRepository;
+
+	@BeforeEach
+	void clear() {
+		chatLogRepository.deleteAll();
+	}
+
+	@Test
+	void queuedEntriesAreWrittenAndDrainedOnClose() throws Exception {
+		// long flush interval: nothing reaches the database before close() unless a batch fills up
+		ChatLogWriter writer = new ChatLogWriter(chatLogRepository, 1000, 10, Duration.ofMinutes(1),
+				OverflowPolicy.DROP, Duration.ZERO, new SimpleMeterRegistry());
+
+		for (int i = 0; i < 25; i++) writer.log(entry(i));
+		writer.close();
+
+		assertEquals(25, chatLogRepository.count());
+		assertEquals(25.0, writer.writtenCount());
+		assertEquals(0, writer.queued());
+	}
+
+	@Test
+	void callerRunsWhenQueueIsFull() throws Exception {
+		ChatLogWriter writer = new ChatLogWriter(chatLogRepository, 1, 10, Duration.ofMinutes(1),
+				OverflowPolicy.CALLER_RUNS, Duration.ZERO, new SimpleMeterRegistry());
+
+		for (int i = 0; i < 20; i++) writer.log(entry(i));
+		writer.close();
+
+		assertEquals(20, chatLogRepository.count());
+		assertEquals(0.0, writer.droppedCount());
+	}
+
+	@Test
+	void dropPolicyNeverWaitsAndCountsLosses() throws Exception {
+		ChatLogWriter writer = new ChatLogWriter(chatLogRepository, 1, 10, Duration.ofMinutes(1),
+				OverflowPolicy.DROP, Duration.ZERO, new SimpleMeterRegistry());
+
+		for (int i = 0; i < 20; i++) writer.log(entry(i));
+		writer.close();
+
+		assertTrue(writer.droppedCount() > 0);
+		assertEquals(20, chatLogRepository.count() + (long) writer.droppedCount());
+	}
+
+	@Test
+	void longTextIsTruncated() {
+		ChatLog log = new ChatLog("s", "u", "TR000000000000000000008001", "x".repeat(5000), "ok",
+				"FALLBACK", null, 1, LocalDateTime.now());
+
+		assertEquals(ChatLog.MAX_TEXT_LENGTH, log.getMessage().length());
+	}
+
+	private static ChatLog entry(int i) {
+		return new ChatLog("session-1", "alice@example.com", "TR000000000000000000008001", "bakiye " + i,
+				"Güncel bakiyeniz: 150 TL.", "BALANCE", null, 3, LocalDateTime.now());
+	}
+}
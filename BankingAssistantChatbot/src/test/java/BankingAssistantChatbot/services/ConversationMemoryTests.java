@@ -0,0 +1,94 @@
+package BankingAssistantChatbot.services;
+
+import BankingAssistantChatbot.services.ConversationMemory.Turn;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConversationMemoryTests {
+
+	private static final String TURN = "x".repeat(36); // 9 + 4 tokens per side, 26 per turn
+
+	@Test
+	void oldestTurnsAreDroppedToStayWithinTheBudget() {
+		ConversationMemory memory = new ConversationMemory(60, Duration.ofMinutes(15), 10, new SimpleMeterRegistry());
+
+		memory.history("s1");
+		memory.record("s1", "first" + TURN.substring(5), TURN);
+		memory.record("s1", "second" + TURN.substring(6), TURN);
+		memory.record("s1", "third" + TURN.substring(5), TURN);
+
+		List<Turn> history = memory.history("s1");
+		assertEquals(2, history.size());
+		assertTrue(history.get(0).user().startsWith("second"));
+		assertTrue(history.get(1).user().startsWith("third"));
+		assertTrue(history.stream().mapToInt(Turn::tokens).sum() <= 60);
+	}
+
+	@Test
+	void turnLargerThanTheBudgetIsNotKept() {
+		ConversationMemory memory = new ConversationMemory(20, Duration.ofMinutes(15), 10, new SimpleMeterRegistry());
+
+		memory.history("s1");
+		memory.record("s1", TURN, TURN);
+
+		assertTrue(memory.history("s1").isEmpty());
+	}
+
+	@Test
+	void idleSessionStartsOver() throws InterruptedException {
+		ConversationMemory memory = new ConversationMemory(512, Duration.ofMillis(50), 10, new SimpleMeterRegistry());
+
+		memory.history("s1");
+		memory.record("s1", "EFT ne kadar sürer?", "Aynı gün.");
+		assertEquals(1, memory.history("s1").size());
+
+		Thread.sleep(100);
+		assertTrue(memory.history("s1").isEmpty());
+	}
+
+	@Test
+	void idleSessionsArePurgedBeforeTheMapFills() throws InterruptedException {
+		ConversationMemory memory = new ConversationMemory(512, Duration.ofMillis(50), 10_000, new SimpleMeterRegistry());
+		for (int i = 0; i < 100; i++) {
+			memory.history("s" + i);
+		}
+		assertEquals(100, memory.size());
+
+		Thread.sleep(100);
+		memory.history("new"); // any later question purges the idle ones
+
+		assertEquals(1, memory.size());
+	}
+
+	@Test
+	void replyFinishingAfterDisconnectDoesNotBringTheSessionBack() {
+		ConversationMemory memory = new ConversationMemory(512, Duration.ofMinutes(15), 10, new SimpleMeterRegistry());
+
+		memory.history("s1"); // question goes to the model
+		memory.forget("s1"); // client disconnects while it is answering
+		memory.record("s1", "EFT ne kadar sürer?", "Aynı gün.");
+
+		assertEquals(0, memory.size());
+	}
+
+	@Test
+	void sessionsAreKeptApart() {
+		ConversationMemory memory = new ConversationMemory(512, Duration.ofMinutes(15), 10, new SimpleMeterRegistry());
+
+		memory.history("s1");
+		memory.record("s1", "EFT ne kadar sürer?", "Aynı gün.");
+		memory.record(null, "FAST nedir?", "Anında transfer.");
+
+		assertEquals(1, memory.history("s1").size());
+		assertTrue(memory.history("s2").isEmpty());
+		assertTrue(memory.history(null).isEmpty());
+
+		memory.forget("s1");
+		assertTrue(memory.history("s1").isEmpty());
+	}
+}
@@ -0,0 +1,56 @@
+package BankingAssistantChatbot.services;
+
+import BankingAssistantChatbot.model.Money;
+import BankingAssistantChatbot.services.IntentRouter.Intent;
+import BankingAssistantChatbot.services.IntentRouter.Lang;
+import BankingAssistantChatbot.services.IntentRouter.Route;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntentRouterTests {
+
+	private final IntentRouter router = new IntentRouter();
+
+	@Test
+	void routesByRuleTableOrder() {
+		assertEquals(Intent.IBAN_FORMAT, router.route("IBAN formatı nedir?").intent());
+		assertEquals(Intent.TRANSFER_HELP, router.route("How to transfer money?").intent());
+		assertEquals(Intent.BALANCE, router.route("Bakiyemi göster").intent());
+		assertEquals(Intent.LAST_TRANSACTIONS, router.route("son 10 işlem").intent());
+		assertEquals(Intent.FALLBACK, router.route("EFT nedir").intent());
+		// "balance" wins over "send" because BALANCE comes first in the table
+		assertEquals(Intent.BALANCE, router.route("send my balance").intent());
+	}
+
+	@Test
+	void detectsLanguage() {
+		assertEquals(Lang.TR, router.route(null).lang());
+		assertEquals(Lang.TR, router.route("Şube nerede").lang());
+		assertEquals(Lang.TR, router.route("havale ucreti").lang());
+		assertEquals(Lang.EN, router.route("what is my balance").lang());
+		assertEquals(Lang.TR, router.route("xyz").lang());
+	}
+
+	@Test
+	void extractsTransferSlotsOutsideTheIban() {
+		Route route = router.route("tr12 0006 2000 0000 0000 0000 01 250,50 TL gönder");
+		assertEquals(Intent.TRANSFER, route.intent());
+		assertEquals("TR120006200000000000000001", route.iban());
+		assertEquals(Money.of("250.50"), route.amount());
+
+		Route noIban = router.route("send 100TL or 75 TL");
+		assertNull(noIban.iban());
+		assertEquals(Money.of("75"), noIban.amount());
+
+		// "1.000" is ambiguous (thousands separator or decimals); ask instead of guessing
+		assertNull(router.route("1.000 TL gönder").amount());
+	}
+
+	@Test
+	void validatesTurkishIban() {
+		assertTrue(IntentRouter.isValidTrIban("TR120006200000000000000001"));
+		assertFalse(IntentRouter.isValidTrIban("TR12000620000000000000000001"));
+		assertFalse(IntentRouter.isValidTrIban("DE120006200000000000000001"));
+	}
+}
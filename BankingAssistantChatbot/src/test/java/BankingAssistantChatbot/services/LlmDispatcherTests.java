@@ -0,0 +1,107 @@
+package BankingAssistantChatbot.services;
+
+import BankingAssistantChatbot.services.LlmDispatcher.Priority;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LlmDispatcherTests {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final ExecutorService callers = Executors.newCachedThreadPool();
+
+	@AfterEach
+	void stopCallers() {
+		callers.shutdownNow();
+	}
+
+	@Test
+	void waitingCallsRunByPriority() throws Exception {
+		LlmDispatcher dispatcher = new LlmDispatcher(1, 8, Duration.ofSeconds(5), registry);
+		CountDownLatch modelBusy = new CountDownLatch(1);
+		List<String> order = new CopyOnWriteArrayList<>();
+
+		Future<String> first = callers.submit(() -> dispatcher.submit(Priority.NORMAL, () -> await(modelBusy, "first"), () -> "busy"));
+		awaitState(dispatcher, 1, 0);
+
+		Future<String> low = callers.submit(() -> dispatcher.submit(Priority.LOW, () -> record(order, "low"), () -> "busy"));
+		awaitState(dispatcher, 1, 1);
+		Future<String> high = callers.submit(() -> dispatcher.submit(Priority.HIGH, () -> record(order, "high"), () -> "busy"));
+		awaitState(dispatcher, 1, 2);
+
+		modelBusy.countDown();
+		assertEquals("first", first.get(5, TimeUnit.SECONDS));
+		assertEquals("high", high.get(5, TimeUnit.SECONDS));
+		assertEquals("low", low.get(5, TimeUnit.SECONDS));
+		assertEquals(List.of("high", "low"), order);
+		assertEquals(0, dispatcher.running());
+		assertEquals(3, registry.find("ai.dispatch.queue.time").timers().stream().mapToLong(t -> t.count()).sum());
+	}
+
+	@Test
+	void fullQueueIsRejectedRightAway() throws Exception {
+		LlmDispatcher dispatcher = new LlmDispatcher(1, 1, Duration.ofSeconds(5), registry);
+		CountDownLatch modelBusy = new CountDownLatch(1);
+
+		callers.submit(() -> dispatcher.submit(Priority.NORMAL, () -> await(modelBusy, "first"), () -> "busy"));
+		awaitState(dispatcher, 1, 0);
+		Future<String> queued = callers.submit(() -> dispatcher.submit(Priority.NORMAL, () -> "second", () -> "busy"));
+		awaitState(dispatcher, 1, 1);
+
+		assertEquals("busy", dispatcher.submit(Priority.HIGH, () -> "third", () -> "busy"));
+		assertEquals(1.0, registry.counter("ai.dispatch.rejected", "reason", "full").count());
+
+		modelBusy.countDown();
+		assertEquals("second", queued.get(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void callIsTurnedAwayAtTheQueueDeadline() throws Exception {
+		LlmDispatcher dispatcher = new LlmDispatcher(1, 8, Duration.ofMillis(100), registry);
+		CountDownLatch modelBusy = new CountDownLatch(1);
+
+		callers.submit(() -> dispatcher.submit(Priority.NORMAL, () -> await(modelBusy, "first"), () -> "busy"));
+		awaitState(dispatcher, 1, 0);
+
+		long start = System.nanoTime();
+		assertEquals("busy", dispatcher.submit(Priority.HIGH, () -> "second", () -> "busy"));
+		assertTrue(System.nanoTime() - start >= Duration.ofMillis(100).toNanos());
+		assertEquals(0, dispatcher.queued());
+		assertEquals(1.0, registry.counter("ai.dispatch.rejected", "reason", "deadline").count());
+
+		modelBusy.countDown();
+	}
+
+	private static String await(CountDownLatch latch, String result) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return result;
+	}
+
+	private static String record(List<String> order, String name) {
+		order.add(name);
+		return name;
+	}
+
+	private static void awaitState(LlmDispatcher dispatcher, int running, int queued) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (dispatcher.running() != running || dispatcher.queued() != queued) {
+			assertTrue(System.currentTimeMillis() < deadline, "dispatcher never reached running=" + running + ", queued=" + queued);
+			Thread.sleep(5);
+		}
+	}
+}
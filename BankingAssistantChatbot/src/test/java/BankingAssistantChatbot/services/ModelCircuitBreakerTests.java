@@ -0,0 +1,61 @@
+package BankingAssistantChatbot.services;
+
+import BankingAssistantChatbot.services.ModelCircuitBreaker.State;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ModelCircuitBreakerTests {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	@Test
+	void opensAfterFailuresInARow() {
+		ModelCircuitBreaker breaker = new ModelCircuitBreaker(3, Duration.ofMinutes(1), 1, registry);
+
+		breaker.onFailure();
+		breaker.onFailure();
+		breaker.onSuccess(); // not in a row any more
+		breaker.onFailure();
+		breaker.onFailure();
+		assertEquals(State.CLOSED, breaker.state());
+
+		breaker.onFailure();
+		assertEquals(State.OPEN, breaker.state());
+		assertFalse(breaker.allowsCalls());
+		assertFalse(breaker.tryAcquire());
+		assertEquals(2.0, registry.counter("ai.breaker.rejected").count());
+	}
+
+	@Test
+	void halfOpenLetsOnlyTheProbesThrough() throws InterruptedException {
+		ModelCircuitBreaker breaker = new ModelCircuitBreaker(1, Duration.ofMillis(50), 1, registry);
+		breaker.onFailure();
+		Thread.sleep(80);
+
+		assertTrue(breaker.allowsCalls());
+		assertTrue(breaker.tryAcquire());
+		assertEquals(State.HALF_OPEN, breaker.state());
+		assertFalse(breaker.tryAcquire()); // the probe is still running
+
+		breaker.onSuccess();
+		assertEquals(State.CLOSED, breaker.state());
+		assertTrue(breaker.tryAcquire());
+	}
+
+	@Test
+	void failedProbeOpensAgain() throws InterruptedException {
+		ModelCircuitBreaker breaker = new ModelCircuitBreaker(1, Duration.ofMillis(50), 1, registry);
+		breaker.onFailure();
+		Thread.sleep(80);
+
+		assertTrue(breaker.tryAcquire());
+		breaker.onFailure();
+		assertEquals(State.OPEN, breaker.state());
+		assertFalse(breaker.allowsCalls());
+		assertEquals(2.0, registry.counter("ai.breaker.opened").count());
+	}
+}
@@ -0,0 +1,77 @@
+package BankingAssistantChatbot.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ModelResponseCacheTests {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	@Test
+	void keyFoldsCaseSpacingAndPunctuation() {
+		assertEquals("tr|short|80|eft nedir", ModelResponseCache.key("  EFT   nedir?! ", true, false, 80));
+		assertEquals(ModelResponseCache.key("EFT nedir?", true, false, 80), ModelResponseCache.key("eft, NEDIR", true, false, 80));
+		assertEquals("en|steps|220|how to send a swift transfer", ModelResponseCache.key("How to send a SWIFT transfer?", false, true, 220));
+
+		// language, reply length and the token limit are part of the key
+		assertNotEquals(ModelResponseCache.key("EFT nedir?", true, false, 80), ModelResponseCache.key("EFT nedir?", false, false, 80));
+		assertNotEquals(ModelResponseCache.key("EFT nedir?", true, false, 80), ModelResponseCache.key("EFT nedir?", true, true, 80));
+		assertNotEquals(ModelResponseCache.key("EFT nedir?", true, false, 80), ModelResponseCache.key("EFT nedir?", true, false, 38));
+	}
+
+	@Test
+	void leastRecentlyUsedEntryIsEvictedAtMaxEntries() {
+		ModelResponseCache cache = new ModelResponseCache(2, Duration.ofMinutes(1), registry);
+
+		cache.put("a", "A");
+		cache.put("b", "B");
+		assertEquals("A", cache.get("a")); // b is now the least recently used
+		cache.put("c", "C");
+
+		assertEquals(2, cache.size());
+		assertEquals("A", cache.get("a"));
+		assertNull(cache.get("b"));
+		assertEquals("C", cache.get("c"));
+		assertEquals(1.0, registry.counter("ai.cache.evictions").count());
+	}
+
+	@Test
+	void expiredEntryIsAMissAndRemoved() throws InterruptedException {
+		ModelResponseCache cache = new ModelResponseCache(10, Duration.ofMillis(20), registry);
+
+		cache.put("a", "A");
+		assertEquals("A", cache.get("a"));
+		Thread.sleep(40);
+
+		assertNull(cache.get("a"));
+		assertEquals(0, cache.size());
+		assertEquals(1.0, cache.hitCount());
+		assertEquals(1.0, cache.missCount());
+	}
+
+	@Test
+	void peekIsNotCounted() {
+		ModelResponseCache cache = new ModelResponseCache(10, Duration.ofMinutes(1), registry);
+		cache.put("a", "A");
+
+		assertEquals("A", cache.peek("a"));
+		assertNull(cache.peek("b"));
+		assertEquals(0.0, cache.hitCount());
+		assertEquals(0.0, cache.missCount());
+	}
+
+	@Test
+	void invalidateAllEmptiesTheCache() {
+		ModelResponseCache cache = new ModelResponseCache(10, Duration.ofMinutes(1), registry);
+		cache.put("a", "A");
+		cache.put("b", "B");
+
+		assertEquals(2, cache.invalidateAll());
+		assertEquals(0, cache.size());
+		assertNull(cache.get("a"));
+	}
+}
@@ -0,0 +1,37 @@
+package BankingAssistantChatbot.services;
+
+import BankingAssistantChatbot.model.Money;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyFormatTests {
+
+	@Test
+	void parsesChatAmounts() {
+		assertEquals(Money.ofMinor(10000), parse("100"));
+		assertEquals(Money.ofMinor(25050), parse("250,50"));
+		assertEquals(Money.ofMinor(9990), parse("99.9"));
+		assertNull(parse("1.000"));
+		assertNull(parse("12a"));
+		assertNull(parse("99999999999999999999"));
+	}
+
+	@Test
+	void formatsPerLanguage() {
+		assertEquals("100", MoneyFormat.TR.format(Money.of("100.00")));
+		assertEquals("1.234.567,05", MoneyFormat.TR.format(Money.of("1234567.05")));
+		assertEquals("1,234,567.05", MoneyFormat.EN.format(Money.of("1234567.05")));
+		assertEquals("-1.000,50", MoneyFormat.TR.format(Money.of("-1000.5")));
+		assertEquals("-0.50", Money.of("-0.5").toString());
+	}
+
+	@Test
+	void rejectsFractionsOfAKurus() {
+		assertThrows(ArithmeticException.class, () -> Money.of("0.001"));
+	}
+
+	private static Money parse(String s) {
+		return Money.parse(s, 0, s.length());
+	}
+}
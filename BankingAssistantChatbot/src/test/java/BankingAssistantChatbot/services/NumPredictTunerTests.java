@@ -0,0 +1,28 @@
+package BankingAssistantChatbot.services;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NumPredictTunerTests {
+
+	@Test
+	void numPredictFollowsObservedReplyLengths() {
+		NumPredictTuner tuner = new NumPredictTuner(80, true);
+		for (int i = 0; i < NumPredictTuner.MIN_SAMPLES - 1; i++) tuner.observe(30);
+		assertEquals(80, tuner.current());
+
+		tuner.observe(30);
+		assertEquals(38, tuner.current()); // p95 + 25%
+
+		for (int i = 0; i < NumPredictTuner.WINDOW; i++) tuner.observe(500);
+		assertEquals(80, tuner.current()); // never above the configured ceiling
+	}
+
+	@Test
+	void disabledTunerKeepsTheConfiguredValue() {
+		NumPredictTuner fixed = new NumPredictTuner(80, false);
+		for (int i = 0; i < 50; i++) fixed.observe(10);
+		assertEquals(80, fixed.current());
+	}
+}
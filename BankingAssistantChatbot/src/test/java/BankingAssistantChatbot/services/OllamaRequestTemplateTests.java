@@ -0,0 +1,46 @@
+package BankingAssistantChatbot.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OllamaRequestTemplateTests {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	@Test
+	void renderedBodyIsTheFullChatRequest() throws Exception {
+		OllamaRequestTemplate template = new OllamaRequestTemplate("qwen", "You are \"BankingAssistant\".\nBe short.", "30m");
+
+		JsonNode body = MAPPER.readTree(template.render("EFT \"nedir\"?\n\\ ünlü", false, 80));
+
+		assertEquals("qwen", body.get("model").asText());
+		assertEquals("30m", body.get("keep_alive").asText());
+		assertTrue(body.get("stream").asBoolean());
+		assertEquals("system", body.at("/messages/0/role").asText());
+		assertEquals("You are \"BankingAssistant\".\nBe short.", body.at("/messages/0/content").asText());
+		assertEquals("user", body.at("/messages/1/role").asText());
+		assertEquals("EFT \"nedir\"?\n\\ ünlü", body.at("/messages/1/content").asText());
+		assertEquals(80, body.at("/options/num_predict").asInt());
+		assertEquals(0.0, body.at("/options/temperature").asDouble());
+		assertEquals(5, body.at("/options/stop").size());
+
+		JsonNode steps = MAPPER.readTree(template.render("adım adım anlat", true, 173));
+		assertTrue(steps.get("stream").asBoolean());
+		assertEquals(173, steps.at("/options/num_predict").asInt());
+		assertEquals(1, steps.at("/options/stop").size());
+	}
+
+	@Test
+	void keepAliveInSecondsIsSentAsNumber() throws Exception {
+		OllamaRequestTemplate template = new OllamaRequestTemplate("qwen", "sys", "-1");
+
+		JsonNode load = MAPPER.readTree(template.loadModelBody());
+
+		assertTrue(load.get("keep_alive").isNumber());
+		assertEquals(-1, load.get("keep_alive").asInt());
+		assertEquals(0, load.get("messages").size());
+	}
+}
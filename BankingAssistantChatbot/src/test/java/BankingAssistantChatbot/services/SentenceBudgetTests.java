@@ -0,0 +1,31 @@
+package BankingAssistantChatbot.services;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SentenceBudgetTests {
+
+	@Test
+	void stopsAtTheWhitespaceAfterTheLastSentence() {
+		SentenceBudget budget = new SentenceBudget(2);
+		StringBuilder kept = new StringBuilder();
+
+		for (String delta : new String[] {"EFT", " 3.5 saat", " sürer", ".", " Hafta", " sonu", " yok!", "  Başka", " soru?"}) {
+			kept.append(delta, 0, budget.accept(delta));
+			if (budget.exhausted()) break;
+		}
+
+		assertTrue(budget.exhausted());
+		assertEquals("EFT 3.5 saat sürer. Hafta sonu yok!", kept.toString());
+		assertEquals(AiClientService.keepMaxSentences("EFT 3.5 saat sürer. Hafta sonu yok!  Başka soru?", 2), kept.toString());
+	}
+
+	@Test
+	void zeroMeansUnlimited() {
+		SentenceBudget budget = new SentenceBudget(0);
+
+		assertEquals(9, budget.accept("A. B. C. "));
+		assertFalse(budget.exhausted());
+	}
+}
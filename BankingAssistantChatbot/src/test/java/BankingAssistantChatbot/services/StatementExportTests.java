@@ -0,0 +1,89 @@
+package BankingAssistantChatbot.services;
+
+import BankingAssistantChatbot.model.Account;
+import BankingAssistantChatbot.model.AccountType;
+import BankingAssistantChatbot.model.Money;
+import BankingAssistantChatbot.model.Transaction;
+import BankingAssistantChatbot.repository.AccountRepository;
+import BankingAssistantChatbot.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@Import(StatementExportService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StatementExportTests {
+
+	private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+	@Autowired
+	private StatementExportService statementExportService;
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private AccountRepository accountRepository;
+
+	@Test
+	void exportsRangeInChronologicalOrder() throws Exception {
+		Account account = accountWithDailyRows("TR000000000000000000004001", 1200);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		long rows = statementExportService.export(account.getId(), START.plusDays(100), START.plusDays(131),
+				StatementExportService.Format.CSV, out);
+
+		String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+		assertEquals(31, rows);
+		assertEquals(32, lines.length);
+		assertEquals("id,created_at,transaction_type,amount", lines[0]);
+		assertTrue(lines[1].contains(START.plusDays(100).toString()));
+		assertTrue(lines[31].contains(START.plusDays(130).toString()));
+	}
+
+	@Test
+	void exportsEverythingAsNdjsonWithoutRange() throws Exception {
+		Account account = accountWithDailyRows("TR000000000000000000004002", 1200);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		long rows = statementExportService.export(account.getId(), null, null, StatementExportService.Format.NDJSON, out);
+
+		String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+		assertEquals(1200, rows);
+		assertEquals(1200, lines.length);
+		assertTrue(lines[0].startsWith("{\"id\":"));
+		assertTrue(lines[0].endsWith(",\"transactionType\":\"DEPOSIT\",\"amount\":12.50}"));
+	}
+
+	private Account accountWithDailyRows(String iban, int days) {
+		Account account = accountRepository.save(Account.builder()
+				.iban(iban)
+				.accountType(AccountType.CHECKING)
+				.status("ACTIVE")
+				.balance(Money.ZERO)
+				.build());
+
+		List<Transaction> rows = new ArrayList<>();
+		for (int i = 0; i < days; i++) {
+			rows.add(new Transaction(account, Money.of("12.50"), "DEPOSIT", START.plusDays(i)));
+		}
+		transactionRepository.saveAll(rows);
+		return account;
+	}
+}
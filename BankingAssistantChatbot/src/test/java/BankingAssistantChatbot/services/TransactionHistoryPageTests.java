@@ -0,0 +1,134 @@
+package BankingAssistantChatbot.services;
+
+import BankingAssistantChatbot.dto.TransactionDTO;
+import BankingAssistantChatbot.dto.TransactionPageDTO;
+import BankingAssistantChatbot.model.Account;
+import BankingAssistantChatbot.model.AccountType;
+import BankingAssistantChatbot.model.Money;
+import BankingAssistantChatbot.model.Transaction;
+import BankingAssistantChatbot.repository.AccountRepository;
+import BankingAssistantChatbot.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@Import(TransactionService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TransactionHistoryPageTests {
+
+	private static final String IBAN = "TR000000000000000000003001";
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private AccountRepository accountRepository;
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Test
+	void pagesVisitEveryRowOnceNewestFirst() {
+		Account account = accountRepository.save(Account.builder()
+				.iban(IBAN)
+				.accountType(AccountType.CHECKING)
+				.status("ACTIVE")
+				.balance(Money.ZERO)
+				.build());
+
+		// 5 rows per timestamp, so page boundaries fall inside runs of equal createdAt
+		LocalDateTime base = LocalDateTime.of(2024, 1, 1, 12, 0);
+		List<Transaction> rows = new ArrayList<>();
+		for (int i = 0; i < 237; i++) {
+			rows.add(new Transaction(account, Money.ofMinor(i * 100L), "DEPOSIT", base.minusMinutes(i / 5)));
+		}
+		transactionRepository.saveAll(rows);
+
+		Set<Long> seen = new HashSet<>();
+		TransactionDTO previous = null;
+		String cursor = null;
+		int pages = 0;
+		do {
+			TransactionPageDTO page = transactionService.getTransactionPage(account.getId(), cursor, 50);
+			assertTrue(page.getItems().size() <= 50);
+			for (TransactionDTO t : page.getItems()) {
+				assertTrue(seen.add(t.getId()), "row returned twice: " + t.getId());
+				if (previous != null) {
+					int cmp = t.getCreatedAt().compareTo(previous.getCreatedAt());
+					assertTrue(cmp < 0 || (cmp == 0 && t.getId() < previous.getId()));
+				}
+				previous = t;
+			}
+			cursor = page.getNextCursor();
+			pages++;
+		} while (cursor != null);
+
+		assertEquals(237, seen.size());
+		assertEquals(5, pages);
+	}
+
+	@Test
+	void pageSizeIsClamped() {
+		Account account = accountWithRows("TR000000000000000000003002", TransactionService.MAX_PAGE_SIZE + 50);
+
+		TransactionPageDTO page = transactionService.getTransactionPage(account.getId(), null, 10_000);
+		assertEquals(TransactionService.MAX_PAGE_SIZE, page.getItems().size());
+		assertNotNull(page.getNextCursor());
+
+		TransactionPageDTO rest = transactionService.getTransactionPage(account.getId(), page.getNextCursor(), 10_000);
+		assertEquals(50, rest.getItems().size());
+		assertNull(rest.getNextCursor());
+	}
+
+	@Test
+	void pageSizeBelowOneReturnsOneRow() {
+		Account account = accountWithRows("TR000000000000000000003003", 3);
+
+		for (int size : new int[] {0, -5}) {
+			TransactionPageDTO page = transactionService.getTransactionPage(account.getId(), null, size);
+			assertEquals(1, page.getItems().size());
+			assertNotNull(page.getNextCursor());
+		}
+	}
+
+	@Test
+	void malformedCursorIsRejected() {
+		Account account = accountWithRows("TR000000000000000000003004", 1);
+
+		assertThrows(ResponseStatusException.class, () -> transactionService.getTransactionPage(account.getId(), "not-a-cursor", 10));
+	}
+
+	private Account accountWithRows(String iban, int count) {
+		Account account = accountRepository.save(Account.builder()
+				.iban(iban)
+				.accountType(AccountType.CHECKING)
+				.status("ACTIVE")
+				.balance(Money.ZERO)
+				.build());
+
+		LocalDateTime base = LocalDateTime.of(2024, 1, 1, 12, 0);
+		List<Transaction> rows = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			rows.add(new Transaction(account, Money.ofMinor(100L), "DEPOSIT", base.minusMinutes(i)));
+		}
+		transactionRepository.saveAll(rows);
+		return account;
+	}
+}
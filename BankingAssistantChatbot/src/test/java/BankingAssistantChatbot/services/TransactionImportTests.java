@@ -0,0 +1,110 @@
+package BankingAssistantChatbot.services;
+
+import BankingAssistantChatbot.model.Account;
+import BankingAssistantChatbot.model.AccountType;
+import BankingAssistantChatbot.model.Money;
+import BankingAssistantChatbot.repository.AccountRepository;
+import BankingAssistantChatbot.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@Import(TransactionService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // the import commits (or rolls back) on its own
+class TransactionImportTests {
+
+	private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private AccountRepository accountRepository;
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Test
+	void importInsertsAllRows() {
+		Account account = account("TR000000000000000000006001");
+
+		assertEquals(2500, transactionService.importTransactions(account.getId(), ndjson(2500, null)));
+		assertEquals(2500, transactionRepository.findByAccount(account).size());
+	}
+
+	@Test
+	void jsonArrayIsAcceptedToo() {
+		Account account = account("TR000000000000000000006002");
+		String body = "[" + row(0) + "," + row(1) + "," + row(2) + "]";
+
+		assertEquals(3, transactionService.importTransactions(account.getId(), stream(body)));
+		assertEquals(3, transactionRepository.findByAccount(account).size());
+	}
+
+	@Test
+	void rowWithoutAmountRejectsTheWholeImport() {
+		Account account = account("TR000000000000000000006003");
+		// past the first flush, so rows are already in the database when the bad one comes
+		String bad = "{\"transactionType\":\"DEPOSIT\",\"createdAt\":\"2024-01-01T00:00:00\"}";
+
+		ResponseStatusException e = assertThrows(ResponseStatusException.class,
+				() -> transactionService.importTransactions(account.getId(), ndjson(1500, bad)));
+
+		assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+		assertTrue(e.getReason().startsWith("Import row 1501:"), e.getReason());
+		assertTrue(transactionRepository.findByAccount(account).isEmpty());
+	}
+
+	@Test
+	void malformedRowRejectsTheWholeImport() {
+		Account account = account("TR000000000000000000006004");
+
+		ResponseStatusException e = assertThrows(ResponseStatusException.class,
+				() -> transactionService.importTransactions(account.getId(), stream(row(0) + "\n{\"amount\":")));
+
+		assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+		assertTrue(e.getReason().startsWith("Import row 2:"), e.getReason());
+		assertTrue(transactionRepository.findByAccount(account).isEmpty());
+	}
+
+	private Account account(String iban) {
+		return accountRepository.save(Account.builder()
+				.iban(iban)
+				.accountType(AccountType.CHECKING)
+				.status("ACTIVE")
+				.balance(Money.ZERO)
+				.build());
+	}
+
+	private static InputStream ndjson(int rows, String last) {
+		StringBuilder body = new StringBuilder();
+		for (int i = 0; i < rows; i++) body.append(row(i)).append('\n');
+		if (last != null) body.append(last).append('\n');
+		return stream(body.toString());
+	}
+
+	private static String row(int i) {
+		return "{\"amount\":10.00,\"transactionType\":\"DEPOSIT\",\"createdAt\":\"" + START.plusMinutes(i) + "\"}";
+	}
+
+	private static InputStream stream(String body) {
+		return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,101 @@
+package BankingAssistantChatbot.services;
+
+import BankingAssistantChatbot.config.BalanceCacheConfig;
+import BankingAssistantChatbot.exceptions.InsufficientBalanceException;
+import BankingAssistantChatbot.model.Account;
+import BankingAssistantChatbot.model.AccountType;
+import BankingAssistantChatbot.model.Money;
+import BankingAssistantChatbot.repository.AccountRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@Import({AccountService.class, BalanceCache.class, BalanceCacheConfig.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // every transfer commits on its own
+class TransferConcurrencyTests {
+
+	private static final int ACCOUNTS = 10;
+	private static final int TRANSFERS = 4000;
+	private static final int THREADS = 16;
+	private static final Money OPENING_BALANCE = Money.of("1000.00");
+
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	private AccountRepository accountRepository;
+
+	@Autowired
+	private BalanceCache balanceCache;
+
+	@Test
+	void parallelTransfersConserveTotalBalance() throws Exception {
+		List<String> ibans = new ArrayList<>();
+		for (int i = 0; i < ACCOUNTS; i++) {
+			String iban = String.format("TR%024d", 1000 + i);
+			accountRepository.save(Account.builder()
+					.iban(iban)
+					.accountType(AccountType.CHECKING)
+					.status("ACTIVE")
+					.balance(OPENING_BALANCE)
+					.build());
+			ibans.add(iban);
+		}
+
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		AtomicInteger succeeded = new AtomicInteger();
+		List<Future<?>> futures = new ArrayList<>();
+		Random random = new Random(42);
+
+		for (int i = 0; i < TRANSFERS; i++) {
+			String from = ibans.get(random.nextInt(ACCOUNTS));
+			String to = ibans.get(random.nextInt(ACCOUNTS));
+			Money amount = Money.ofMinor(100L * (1 + random.nextInt(300)));
+			futures.add(pool.submit(() -> {
+				try {
+					if (accountService.transfer(from, to, amount).isPresent()) succeeded.incrementAndGet();
+				} catch (InsufficientBalanceException ignored) {
+					// expected once balances run low
+				}
+			}));
+			if (i % 4 == 0) {
+				futures.add(pool.submit(() -> accountService.getBalance(from))); // readers filling the cache in between
+			}
+		}
+
+		for (Future<?> f : futures) f.get(2, TimeUnit.MINUTES);
+		pool.shutdown();
+
+		Money total = Money.ZERO;
+		for (String iban : ibans) {
+			Account a = accountRepository.findByIban(iban).orElseThrow();
+			assertTrue(a.getBalance().signum() >= 0, "negative balance on " + a.getIban());
+			total = total.plus(a.getBalance());
+			// whatever order the commit hooks ran in, the cache ends up with the committed balance
+			assertEquals(a.getBalance(), balanceCache.get(iban, i -> fail("not cached: " + i)), "stale cached balance on " + iban);
+		}
+
+		assertEquals(Money.ofMinor(OPENING_BALANCE.minor() * ACCOUNTS), total);
+		assertTrue(succeeded.get() > 0);
+	}
+}
@@ -0,0 +1,96 @@
+package BankingAssistantChatbot.services;
+
+import BankingAssistantChatbot.config.BalanceCacheConfig;
+import BankingAssistantChatbot.model.Account;
+import BankingAssistantChatbot.model.AccountType;
+import BankingAssistantChatbot.model.Money;
+import BankingAssistantChatbot.repository.AccountRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@TestPropertySource(properties = {
+		"spring.datasource.url=jdbc:h2:mem:querycount;DB_CLOSE_DELAY=-1",
+		"spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({BankingService.class, AccountService.class, TransactionService.class,
+		BalanceCache.class, BalanceCacheConfig.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // let each call commit so its SQL is flushed
+class TransferQueryCountTests {
+
+	private static final String FROM = "TR000000000000000000002001";
+	private static final String TO = "TR000000000000000000002002";
+	private static final String CACHED_FROM = "TR000000000000000000002004";
+	private static final String CACHED_TO = "TR000000000000000000002005";
+
+	@Autowired
+	private BankingService bankingService;
+
+	@Autowired
+	private AccountRepository accountRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void transferBatchesItsWrites() {
+		accountRepository.save(account(FROM, "500.00"));
+		accountRepository.save(account(TO, "0.00"));
+
+		// first transfer also allocates the transactions_seq id block
+		assertTrue(bankingService.transfer(FROM, TO, Money.of("125")));
+
+		Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		stats.clear();
+
+		assertTrue(bankingService.transfer(FROM, TO, Money.of("125")));
+
+		// 2 x SELECT ... FOR UPDATE, 1 batched UPDATE accounts, 1 batched INSERT transactions
+		assertEquals(4, stats.getPrepareStatementCount());
+		assertEquals(1, stats.getTransactionCount());
+
+		assertEquals(Money.of("250.00"), accountRepository.findByIban(FROM).orElseThrow().getBalance());
+		assertEquals(Money.of("250.00"), accountRepository.findByIban(TO).orElseThrow().getBalance());
+	}
+
+	@Test
+	void balanceReadsAfterTransferComeFromCache() {
+		accountRepository.save(account(CACHED_FROM, "100.00"));
+		accountRepository.save(account(CACHED_TO, "0.00"));
+
+		assertEquals(Money.of("100"), bankingService.getBalance(CACHED_FROM)); // miss, fills the cache
+		assertTrue(bankingService.transfer(CACHED_FROM, CACHED_TO, Money.of("40")));
+
+		Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		stats.clear();
+
+		// both legs were published on commit: the new balances, without touching the database
+		assertEquals(Money.of("60"), bankingService.getBalance(CACHED_FROM));
+		assertEquals(Money.of("40"), bankingService.getBalance(CACHED_TO));
+		assertEquals(0, stats.getPrepareStatementCount());
+	}
+
+	private static Account account(String iban, String balance) {
+		return Account.builder()
+				.iban(iban)
+				.accountType(AccountType.CHECKING)
+				.status("ACTIVE")
+				.balance(Money.of(balance))
+				.build();
+	}
+}
@@ -0,0 +1,37 @@
+package BankingAssistantChatbot.config;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtUtilBenchmark {
+
+    private JwtUtil jwtUtil;
+    private JwtUtil uncachedJwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(10_000);
+        uncachedJwtUtil = new JwtUtil(0);
+        token = jwtUtil.generateToken("john.doe@example.com");
+    }
+
+    // repeat token: what the filter sees on every call after the first
+    @Benchmark
+    public String validateCached() {
+        return jwtUtil.validateAndExtractUsername(token);
+    }
+
+    // full signature check and claims parse with the shared parser
+    @Benchmark
+    public String validateUncached() {
+        return uncachedJwtUtil.validateAndExtractUsername(token);
+    }
+}
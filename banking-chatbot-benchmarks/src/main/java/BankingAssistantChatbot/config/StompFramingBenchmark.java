@@ -0,0 +1,80 @@
+package BankingAssistantChatbot.config;
+
+import BankingAssistantChatbot.dto.ChatMessageDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompEncoder;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.sockjs.frame.Jackson2SockJsMessageCodec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+// What one streamed reply chunk costs on each transport, from the STOMP MESSAGE frame to the
+// bytes handed to the socket:
+//   native  - /ws/chat-native, the STOMP frame as one WebSocket text message
+//   sockJs  - /ws/chat, the same frame JSON-escaped inside a SockJS "a[...]" array frame
+//   deflate - /ws/chat-native with permessage-deflate (shared window, sync flush per message)
+// Wire sizes are printed once per trial.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class StompFramingBenchmark {
+
+    @Param({"chunk", "answer"})
+    public String reply;
+
+    private final StompEncoder encoder = new StompEncoder();
+    private final Jackson2SockJsMessageCodec sockJsCodec = new Jackson2SockJsMessageCodec();
+    private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+    private final byte[] deflateBuffer = new byte[64 * 1024];
+
+    private Message<byte[]> message;
+
+    @Setup
+    public void setUp() throws Exception {
+        String content = reply.equals("chunk")
+                ? "Güncel "
+                : "Son 10 işleminiz: 12.03.2024 14:05 - 250,00 TL (TRANSFER_OUT), 11.03.2024 09:12 - 1.000,00 TL "
+                + "(TRANSFER_IN), 10.03.2024 18:40 - 75,50 TL (TRANSFER_OUT). Başka bir konuda yardımcı olabilir miyim?";
+        ChatMessageDTO dto = new ChatMessageDTO("Bot", content, "BOT_STREAM", UUID.randomUUID().toString(), false);
+        byte[] payload = new ObjectMapper().writeValueAsBytes(dto);
+
+        StompHeaderAccessor headers = StompHeaderAccessor.create(StompCommand.MESSAGE);
+        headers.setDestination("/user/queue/replies");
+        headers.setSubscriptionId("sub-0");
+        headers.setMessageId(UUID.randomUUID().toString());
+        headers.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        headers.setContentLength(payload.length);
+        message = MessageBuilder.createMessage(payload, headers.getMessageHeaders());
+
+        System.out.printf("%n%s: payload %d B, native %d B, sockJs %d B, deflate %d B%n", reply,
+                payload.length, nativeFrame().length, sockJsFrame().getBytes(StandardCharsets.UTF_8).length, deflate());
+    }
+
+    @Benchmark
+    public byte[] nativeFrame() {
+        return encoder.encode(message);
+    }
+
+    @Benchmark
+    public String sockJsFrame() {
+        String frame = new String(encoder.encode(message), StandardCharsets.UTF_8);
+        return sockJsCodec.encode(frame);
+    }
+
+    @Benchmark
+    public int deflate() {
+        deflater.setInput(encoder.encode(message));
+        return deflater.deflate(deflateBuffer, 0, deflateBuffer.length, Deflater.SYNC_FLUSH);
+    }
+}
@@ -0,0 +1,148 @@
+package BankingAssistantChatbot.services;
+
+import BankingAssistantChatbot.dto.TransactionDTO;
+import BankingAssistantChatbot.model.Account;
+import BankingAssistantChatbot.model.AccountType;
+import BankingAssistantChatbot.model.Money;
+import BankingAssistantChatbot.repository.AccountRepository;
+import BankingAssistantChatbot.repository.TransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Deterministic chat path: intent routing, slot extraction and the full generateResponse
+// with repositories and the model replaced by in-memory stubs.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ChatRoutingBenchmark {
+
+    static final String USER_IBAN = "TR120006200000000000000001";
+    static final String TARGET_IBAN = "TR120006200000000000000002";
+
+    static final String TRANSFER_MSG = "TR12 0006 2000 0000 0000 0000 02 1 TL gönder";
+    static final String BALANCE_MSG = "What is my balance?";
+    static final String LAST10_MSG = "son 10 işlem";
+    static final String FALLBACK_MSG = "Can you explain what a SWIFT code is used for when receiving money from abroad?";
+
+    private IntentRouter router;
+    private ChatbotService chatbotService;
+    private final int[] transferIbanSpan = new int[2]; // where the IBAN sits in TRANSFER_MSG
+
+    @Setup
+    public void setUp() {
+        Map<String, Account> accounts = new HashMap<>();
+        accounts.put(USER_IBAN, account(1L, USER_IBAN));
+        accounts.put(TARGET_IBAN, account(2L, TARGET_IBAN));
+
+        List<TransactionDTO> last10 = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            last10.add(new TransactionDTO((long) i, Money.ofMinor(-1000L * i), "TRANSFER_OUT", LocalDateTime.now()));
+        }
+
+        AccountRepository accountRepository = InMemoryRepositories.accounts(accounts);
+        TransactionRepository transactionRepository = InMemoryRepositories.transactions(last10);
+
+        // steady state for balance checks is a cache hit, which is what generateBalanceReply measures
+        BalanceCache balanceCache = new BalanceCache(
+                new InMemoryBalanceCacheBackend(1000), Duration.ofMinutes(10), new SimpleMeterRegistry());
+
+        router = new IntentRouter();
+        chatbotService = new ChatbotService(
+                new StubAiClientService(),
+                new BankingService(new AccountService(accountRepository, balanceCache), transactionRepository),
+                new TransactionService(transactionRepository, null), // bulk import is not benchmarked
+                accountRepository,
+                router);
+
+        // extractAmount skips the IBAN span; measure the path that actually finds the amount
+        if (IntentRouter.extractIban(TRANSFER_MSG, transferIbanSpan) == null
+                || IntentRouter.extractAmount(TRANSFER_MSG, transferIbanSpan[0], transferIbanSpan[1]) == null) {
+            throw new IllegalStateException("TRANSFER_MSG no longer parses to an IBAN and an amount");
+        }
+    }
+
+    @Benchmark
+    public IntentRouter.Route routeTransfer() {
+        return router.route(TRANSFER_MSG);
+    }
+
+    @Benchmark
+    public IntentRouter.Route routeFallback() {
+        return router.route(FALLBACK_MSG);
+    }
+
+    @Benchmark
+    public String extractIban() {
+        return IntentRouter.extractIban(TRANSFER_MSG, new int[2]);
+    }
+
+    @Benchmark
+    public Money extractAmount() {
+        return IntentRouter.extractAmount(TRANSFER_MSG, transferIbanSpan[0], transferIbanSpan[1]);
+    }
+
+    @Benchmark
+    public IntentRouter.Lang detectLanguage() {
+        return router.route(BALANCE_MSG).lang();
+    }
+
+    @Benchmark
+    public String generateBalanceReply() {
+        return chatbotService.generateResponse(USER_IBAN, BALANCE_MSG);
+    }
+
+    @Benchmark
+    public String generateLast10Reply() {
+        return chatbotService.generateResponse(USER_IBAN, LAST10_MSG);
+    }
+
+    @Benchmark
+    public String generateTransferReply() {
+        return chatbotService.generateResponse(USER_IBAN, TRANSFER_MSG);
+    }
+
+    @Benchmark
+    public String generateFallbackReply() {
+        return chatbotService.generateResponse(USER_IBAN, FALLBACK_MSG);
+    }
+
+    private static Account account(Long id, String iban) {
+        return Account.builder()
+                .id(id)
+                .iban(iban)
+                .accountType(AccountType.CHECKING)
+                .status("ACTIVE")
+                .balance(Money.of("1000000000000"))
+                .build();
+    }
+
+    // Answers instantly so the fall-through benchmark measures routing + dispatch only
+    static final class StubAiClientService extends AiClientService {
+
+        StubAiClientService() {
+            super(new ModelResponseCache(16, Duration.ofMinutes(1), new SimpleMeterRegistry()),
+                    new ConversationMemory(0, Duration.ofMinutes(15), 16, new SimpleMeterRegistry()),
+                    new LlmDispatcher(1, 1, Duration.ofSeconds(1), new SimpleMeterRegistry()),
+                    new ModelCircuitBreaker(5, Duration.ofSeconds(30), 1, new SimpleMeterRegistry()),
+                    new RestTemplate(), "http://localhost:11434", "30m", false, Duration.ofSeconds(30), 3, 80, 220, true, new SimpleMeterRegistry());
+        }
+
+        @Override
+        public String streamModel(String conversationId, String userMessage, Consumer<String> onToken) {
+            return "A SWIFT code identifies the receiving bank.";
+        }
+    }
+}
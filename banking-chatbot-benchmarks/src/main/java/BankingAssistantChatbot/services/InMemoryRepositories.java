@@ -0,0 +1,52 @@
+package BankingAssistantChatbot.services;
+
+import BankingAssistantChatbot.dto.AccountInfoDTO;
+import BankingAssistantChatbot.dto.TransactionDTO;
+import BankingAssistantChatbot.model.Account;
+import BankingAssistantChatbot.repository.AccountRepository;
+import BankingAssistantChatbot.repository.TransactionRepository;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Map-backed stand-ins for the Spring Data repositories, so the benchmarks measure
+// our code and not PostgreSQL. Only the methods the chat path calls are implemented.
+final class InMemoryRepositories {
+
+    private InMemoryRepositories() { }
+
+    static AccountRepository accounts(Map<String, Account> byIban) {
+        return (AccountRepository) Proxy.newProxyInstance(
+                AccountRepository.class.getClassLoader(),
+                new Class<?>[]{AccountRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findByIban", "findByIbanForUpdate" -> Optional.ofNullable(byIban.get((String) args[0]));
+                    case "findInfoByIban" -> Optional.ofNullable(byIban.get((String) args[0])).map(InMemoryRepositories::info);
+                    case "save" -> args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "InMemoryAccountRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    static TransactionRepository transactions(List<TransactionDTO> last10) {
+        return (TransactionRepository) Proxy.newProxyInstance(
+                TransactionRepository.class.getClassLoader(),
+                new Class<?>[]{TransactionRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findRecent" -> last10;
+                    case "save", "saveAll" -> args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "InMemoryTransactionRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static AccountInfoDTO info(Account a) {
+        return new AccountInfoDTO(a.getId(), a.getIban(), a.getAccountType(), a.getBalance(), a.getStatus(), a.getVersion());
+    }
+}
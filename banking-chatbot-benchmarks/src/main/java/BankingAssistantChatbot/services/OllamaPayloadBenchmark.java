@@ -0,0 +1,73 @@
+package BankingAssistantChatbot.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Request body for one model call: the old per-call map serialization of the whole prompt
+// against the pre-serialized template, which only escapes the user message.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OllamaPayloadBenchmark {
+
+    static final String MODEL = "qwen2.5-3b-instruct-q4_k_m:latest";
+
+    // same size and shape as AiClientService.SYSTEM_PROMPT
+    static final String SYSTEM_PROMPT = """
+        You are BankingAssistant, an AI banking customer support agent.
+        Your job is to assist customers with balance inquiries, transactions, IBAN help,
+        banking concepts, fraud prevention, and general questions.
+
+        STRICT BEHAVIOR:
+        - Stay in banking context. If the user asks something unrelated, politely say you can only help with banking topics.
+        - Never output code blocks or programming examples.
+        - Keep replies short: max 2–3 sentences unless the user explicitly asks for step-by-step instructions.
+        - If the user message is only a greeting (e.g., "merhaba", "selam", "hi", "hello"),
+          reply with a short greeting + ask what banking help they need.
+
+        Rules:
+        1. Never guess balances or personal data.
+        2. Never ask for PIN, CVV, or password.
+        3. If user asks for a transfer: explain steps but DO NOT perform it.
+        4. Detect user's language (Turkish or English) and reply in that language.
+        5. Keep responses short, polite, and professional.
+        6. If user says "sadece Türkçe konuş", use only Turkish.
+        7. If user says "sadece İngilizce konuş", use only English.
+        """;
+
+    static final String USER_MESSAGE = "Yurt dışından para gelirken SWIFT kodu neden gerekli?";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final OllamaRequestTemplate template = new OllamaRequestTemplate(MODEL, SYSTEM_PROMPT, "30m");
+
+    @Benchmark
+    public byte[] serializeMap() throws Exception {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("model", MODEL);
+        payload.put("stream", true);
+        payload.put("messages", List.of(
+                Map.of("role", "system", "content", SYSTEM_PROMPT),
+                Map.of("role", "user", "content", USER_MESSAGE)
+        ));
+        Map<String, Object> options = new HashMap<>();
+        options.put("temperature", 0.0);
+        options.put("top_p", 0.9);
+        options.put("num_predict", 80);
+        options.put("stop", List.of("```", "\n\n", "User:", "Kullanıcı:", "System:"));
+        payload.put("options", options);
+        return mapper.writeValueAsBytes(payload);
+    }
+
+    @Benchmark
+    public byte[] renderTemplate() {
+        return template.render(USER_MESSAGE, false, 80);
+    }
+}
@@ -0,0 +1,37 @@
+package BankingAssistantChatbot.services;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TextHelpersBenchmark {
+
+    static final String MODEL_REPLY = "SWIFT kodu, bankanızı uluslararası transferlerde tanımlar. "
+            + "Yurt dışından para alırken gönderene IBAN ile birlikte verilir! "
+            + "Kodu banka şubenizden öğrenebilirsiniz. Başka bir sorunuz var mı? Yardımcı olmaktan memnuniyet duyarım.";
+
+    static final String EN_PROMPT = "How long does an international wire take to arrive?";
+
+    private final BankingService bankingService = new BankingService(null, null);
+
+    @Benchmark
+    public String keepMaxSentences() {
+        return AiClientService.keepMaxSentences(MODEL_REPLY, 3);
+    }
+
+    @Benchmark
+    public boolean isTurkish() {
+        return AiClientService.isTurkish(EN_PROMPT);
+    }
+
+    @Benchmark
+    public boolean isValidIban() {
+        return bankingService.isValidIban(ChatRoutingBenchmark.USER_IBAN);
+    }
+}
@@ -6,16 +6,33 @@ import axios from "axios";
 const WS_URL = "http://localhost:8080/ws/chat";
 const LOGIN_URL = "http://localhost:8080/auth/login";
 
-// Put a REAL IBAN that exists in DB
-const DEFAULT_IBAN = "TR12000620000000000000000001";
+// Optional: one of the logged-in customer's IBANs (blank = their first account)
+const DEFAULT_IBAN = "";
 
 // Put the REAL ollama model name here (as seen in `ollama list`)
 const DEFAULT_MODEL = "qwen2.5-3b-instruct-q4_k_m:latest";
 
+// Streamed chunks (BOT_STREAM) are appended to one bubble per replyId;
+// the final BOT frame (done=true) replaces it with the cleaned-up full reply.
+function mergeReply(prev, body) {
+  if (!body.replyId) return [...prev, body];
+
+  const idx = prev.findIndex((m) => m.replyId === body.replyId);
+  if (idx === -1) return [...prev, body];
+
+  const next = [...prev];
+  next[idx] =
+    body.type === "BOT_STREAM"
+      ? { ...prev[idx], content: (prev[idx].content || "") + body.content }
+      : body;
+  return next;
+}
+
 export default function App() {
   const stompClientRef = useRef(null);
 
   const [connected, setConnected] = useState(false);
+  const [token, setToken] = useState(null); // "Bearer ..." from /auth/login
   const [message, setMessage] = useState("");
   const [messages, setMessages] = useState([]);
 
@@ -25,21 +42,23 @@ export default function App() {
   // Optional: keep a list for dropdown (you can add more later)
   const modelOptions = useMemo(() => [DEFAULT_MODEL], []);
 
+  // The STOMP session is authenticated once, at CONNECT, so we only connect after login
   useEffect(() => {
-    const socket = new SockJS(WS_URL);
+    if (!token) return;
 
     const client = new Client({
-      webSocketFactory: () => socket,
+      webSocketFactory: () => new SockJS(WS_URL),
+      connectHeaders: { Authorization: token },
       reconnectDelay: 2000,
       debug: () => {}, // turn on if needed: (str) => console.log(str)
       onConnect: () => {
         setConnected(true);
 
         // Subscribe to backend broadcast
-        client.subscribe("/topic/public", (frame) => {
+        client.subscribe("/user/queue/replies", (frame) => {
           try {
             const body = JSON.parse(frame.body);
-            setMessages((prev) => [...prev, body]);
+            setMessages((prev) => mergeReply(prev, body));
           } catch {
             // if backend sends plain text
             setMessages((prev) => [
@@ -65,12 +84,12 @@ export default function App() {
         client.deactivate();
       } catch {}
     };
-  }, []);
+  }, [token]);
 
   const sendMessage = () => {
     const client = stompClientRef.current;
     if (!client || !client.active || !connected) {
-      alert("WebSocket not connected yet.");
+      alert(token ? "WebSocket not connected yet." : "Log in first.");
       return;
     }
 
@@ -102,8 +121,11 @@ export default function App() {
         email: "john.doe@example.com",
         password: "dummyPassword123",
       });
-      console.log("JWT:", res.data);
-      alert("Login request sent. Check console for JWT.");
+      if (typeof res.data !== "string" || !res.data.startsWith("Bearer ")) {
+        alert("Login failed: " + res.data);
+        return;
+      }
+      setToken(res.data);
     } catch (err) {
       console.error("Login failed:", err?.response?.data || err.message);
       alert("Login failed. Check console.");
@@ -127,8 +149,8 @@ export default function App() {
           {connected ? "Connected" : "Disconnected"}
         </span>
 
-        <button onClick={handleLogin} type="button">
-          Login (optional)
+        <button onClick={handleLogin} type="button" disabled={!!token}>
+          {token ? "Logged in" : "Login"}
         </button>
       </div>
 
@@ -146,7 +168,7 @@ export default function App() {
             value={userIban}
             onChange={(e) => setUserIban(e.target.value)}
             style={{ width: "100%", padding: 10 }}
-            placeholder="TR..."
+            placeholder="TR... (blank = first account)"
           />
         </div>
 